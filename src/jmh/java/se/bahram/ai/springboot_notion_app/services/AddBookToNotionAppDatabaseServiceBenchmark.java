@@ -0,0 +1,33 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Building the Notion property map for one page. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddBookToNotionAppDatabaseServiceBenchmark {
+
+    private final List<String> tags = List.of("Programming", "Java", "Performance", "Concurrency");
+
+    @Benchmark
+    public Map<String, Object> buildProperties() {
+        return AddBookToNotionAppDatabaseService.buildProperties(
+                "Java Concurrency in Practice", "Brian Goetz", "9780321349606", 49.99, "2006-05-19", tags);
+    }
+}
@@ -0,0 +1,26 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/** Recorded responses under src/jmh/resources/fixtures, so benchmarks never touch the network. */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static byte[] bytes(String name) {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) throw new IllegalStateException("Missing fixture " + name);
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String string(String name) {
+        return new String(bytes(name), StandardCharsets.UTF_8);
+    }
+}
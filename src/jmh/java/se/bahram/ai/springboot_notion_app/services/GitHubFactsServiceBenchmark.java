@@ -0,0 +1,89 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import se.bahram.ai.springboot_notion_app.domain.RepoFacts;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-repo work in {@link GitHubFactsService} on recorded API responses:
+ * mapping repo/languages/topics to {@link RepoFacts}, the Link header, and one stargazer page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GitHubFactsServiceBenchmark {
+
+    private static final StarSnapshotStore.Deltas DELTAS = new StarSnapshotStore.Deltas(812, 3104, null);
+    // Falls in the middle of the recorded stargazer page
+    private static final char[] THRESHOLD = "2026-09-10T00:00:00Z".toCharArray();
+
+    private final ObjectMapper om = new ObjectMapper();
+
+    private byte[] repoJson;
+    private byte[] languagesJson;
+    private byte[] topicsJson;
+    private byte[] stargazersJson;
+    private JsonNode repoNode;
+    private JsonNode languagesNode;
+    private JsonNode topicsNode;
+    private HttpHeaders linkHeaders;
+
+    @Setup
+    public void setUp() throws IOException {
+        repoJson = BenchmarkFixtures.bytes("repo.json");
+        languagesJson = BenchmarkFixtures.bytes("languages.json");
+        topicsJson = BenchmarkFixtures.bytes("topics.json");
+        stargazersJson = BenchmarkFixtures.bytes("stargazers.json");
+        repoNode = om.readTree(repoJson);
+        languagesNode = om.readTree(languagesJson);
+        topicsNode = om.readTree(topicsJson);
+
+        linkHeaders = new HttpHeaders();
+        linkHeaders.add(HttpHeaders.LINK,
+                "<https://api.github.com/repositories/123456789/contributors?per_page=1&anon=true&page=2>; rel=\"next\", "
+                        + "<https://api.github.com/repositories/123456789/contributors?per_page=1&anon=true&page=1873>; rel=\"last\"");
+    }
+
+    /** Mapping only, on already parsed trees. */
+    @Benchmark
+    public RepoFacts toRepoFacts() {
+        return GitHubFactsService.toRepoFacts("acme", "agent-kit", 1024, null,
+                repoNode, languagesNode, topicsNode, 1873, DELTAS);
+    }
+
+    /** What one repo costs after the bytes arrive: three tree parses plus the mapping. */
+    @Benchmark
+    public RepoFacts parseAndMapRepoFacts() throws IOException {
+        return GitHubFactsService.toRepoFacts("acme", "agent-kit", 1024, null,
+                om.readTree(repoJson), om.readTree(languagesJson), om.readTree(topicsJson), 1873, DELTAS);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int lastPage() {
+        return GitHubFactsService.lastPage(linkHeaders);
+    }
+
+    /** One 100-entry star+json page. */
+    @Benchmark
+    public GitHubFactsService.PageCount countStarredSince() throws IOException {
+        return GitHubFactsService.countStarredSince(om.getFactory(), stargazersJson, THRESHOLD);
+    }
+}
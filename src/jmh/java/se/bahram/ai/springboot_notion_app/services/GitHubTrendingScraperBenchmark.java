@@ -0,0 +1,61 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import se.bahram.ai.springboot_notion_app.domain.GitHubRepo;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** One recorded Trending page (25 cards): whole-page parsing in both modes, and a single card. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GitHubTrendingScraperBenchmark {
+
+    private static final String BASE_URI = "https://github.com/trending?since=daily&spoken_language_code=en";
+
+    private String html;
+    private Elements cards;
+
+    @Setup
+    public void setUp() {
+        html = BenchmarkFixtures.string("trending-daily.html");
+        cards = Jsoup.parse(html, BASE_URI).select("article.Box-row");
+    }
+
+    @Benchmark
+    public List<GitHubRepo> parseDocument() {
+        return GitHubTrendingScraper.parseDocument(Jsoup.parse(html, BASE_URI));
+    }
+
+    @Benchmark
+    public List<GitHubRepo> parseStreaming() throws IOException {
+        return GitHubTrendingScraper.parseStreaming(new StringReader(html), BASE_URI);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void parseCards(Blackhole bh) {
+        for (Element card : cards) {
+            bh.consume(GitHubTrendingScraper.parseCard(card));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.bahram.ai.springboot_notion_app.domain.ReadmeFacts;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** Deserializing one model answer into {@link ReadmeFacts}, as ReadmeFactsService and ReadmeFactsCache do. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadmeFactsBenchmark {
+
+    private final ObjectMapper om = new ObjectMapper();
+    private final ObjectReader reader = om.readerFor(ReadmeFacts.class);
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        json = BenchmarkFixtures.string("readme-facts.json");
+    }
+
+    /** The call site's form: type lookup on every call. */
+    @Benchmark
+    public ReadmeFacts readValue() throws IOException {
+        return om.readValue(json, ReadmeFacts.class);
+    }
+
+    /** Baseline with the deserializer resolved once. */
+    @Benchmark
+    public ReadmeFacts objectReader() throws IOException {
+        return reader.readValue(json);
+    }
+}
@@ -1,14 +1,19 @@
 package se.bahram.ai.springboot_notion_app;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import se.bahram.ai.springboot_notion_app.domain.CrawledRepo;
+import se.bahram.ai.springboot_notion_app.domain.GitHubRepo;
 import se.bahram.ai.springboot_notion_app.domain.RepoFacts;
+import se.bahram.ai.springboot_notion_app.domain.TrendingAppearance;
 import se.bahram.ai.springboot_notion_app.domain.enums.GitHubTrendingDateRange;
 import se.bahram.ai.springboot_notion_app.services.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -30,12 +35,40 @@ public class SpringbootNotionAppApplication implements CommandLineRunner {
 	@Autowired
 	ReadmeFactsService readmeFactsService;
 
+	@Autowired
+	TrendingPipelineService trendingPipelineService;
+
+	@Autowired
+	ReadmeFactsCache readmeFactsCache;
+
+	@Autowired
+	TrendingCrawlService trendingCrawlService;
+
+	@Autowired
+	RunJournal runJournal;
+
+	@Value("${pipeline.runOnStartup:true}")
+	boolean runOnStartup;
+
+	@Value("${pipeline.crawl.languages:all}")
+	List<String> crawlLanguages;
+
+	@Value("${pipeline.crawl.dateRanges:daily}")
+	List<GitHubTrendingDateRange> crawlDateRanges;
+
+	@Value("${pipeline.crawl.spokenLanguages:en}")
+	List<String> crawlSpokenLanguages;
+
 	public static void main(String[] args) {
 		SpringApplication.run(SpringbootNotionAppApplication.class, args);
 	}
 
 	@Override
 	public void run(String... args) throws Exception {
+		if (!runOnStartup) {
+			// API only: crawls are started through POST /api/trending/jobs
+			return;
+		}
 
 		//notionProbeService.getDb("26c00094-38af-80de-9770-000b907ff28c");
 		/*System.out.println(
@@ -51,14 +84,36 @@ public class SpringbootNotionAppApplication implements CommandLineRunner {
 		);
 		System.out.println("Response from Notion API: " + response);*/
 
-		gitHubTrendingScraper.fetch("", GitHubTrendingDateRange.daily, "en")
-				.forEach(repo -> {
-					System.out.println("Repo: " + repo);
-					RepoFacts facts = gitHubFactsService.fetchFacts(repo.owner(), repo.repo(), repo.starsToday(), null);
-					System.out.println("Facts: " + facts);
-					var readmeFacts = readmeFactsService.extract(repo.owner(), repo.repo());
-					System.out.println("ReadmeFacts: " + readmeFacts);
-					System.out.println("------------------------------");
-				});
+		RunJournal.Run journalRun = runJournal.startRun();
+		System.out.println((journalRun.resumed() ? "Resuming run " : "Starting run ") + journalRun.id());
+
+		// A resumed run keeps the list it scraped before the crash
+		List<CrawledRepo> crawled = journalRun.resumed()
+				? runJournal.runResult(RunJournal.Stage.SCRAPED, CrawledRepo[].class).map(List::of).orElse(null)
+				: null;
+		if (crawled == null) {
+			crawled = trendingCrawlService.crawl(
+					crawlLanguages.stream().map(l -> "all".equalsIgnoreCase(l) ? "" : l).toList(),
+					crawlDateRanges,
+					crawlSpokenLanguages);
+			runJournal.recordRun(RunJournal.Stage.SCRAPED, crawled);
+		}
+		Map<GitHubRepo, List<TrendingAppearance>> appearances = new HashMap<>();
+		crawled.forEach(c -> appearances.put(c.repo(), c.appearances()));
+
+		var repos = crawled.stream().map(CrawledRepo::repo).toList();
+		trendingPipelineService.enrich(repos, enriched -> {
+			System.out.println("Repo: " + enriched.repo());
+			System.out.println("Appearances: " + appearances.get(enriched.repo()));
+			System.out.println("Facts: " + enriched.facts());
+			System.out.println("ReadmeFacts: " + enriched.readmeFacts());
+			if (enriched.failed()) {
+				System.out.println("Error: " + enriched.error());
+			}
+			System.out.println("------------------------------");
+		});
+		runJournal.finishRun();
+		System.out.println("ReadmeFacts cache: " + readmeFactsCache.hits() + " hits, "
+				+ readmeFactsCache.misses() + " misses");
 	}
 }
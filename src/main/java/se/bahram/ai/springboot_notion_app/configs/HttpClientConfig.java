@@ -0,0 +1,72 @@
+package se.bahram.ai.springboot_notion_app.configs;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One pooled JDK {@link HttpClient} per upstream host (HTTP/2 with keep-alive,
+ * falling back to HTTP/1.1), exposed as request factories for RestTemplate.
+ * Timeouts are configured per host in http.yml. The clients share one virtual-thread executor;
+ * both are closed on shutdown.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<HttpClient> clients = new CopyOnWriteArrayList<>();
+
+    /** api.github.com: REST and GraphQL. */
+    @Bean
+    public ClientHttpRequestFactory githubRequestFactory(
+            @Value("${http.github.connectTimeout:10s}") Duration connectTimeout,
+            @Value("${http.github.readTimeout:20s}") Duration readTimeout) {
+        return requestFactory(connectTimeout, readTimeout);
+    }
+
+    /** github.com: the Trending HTML pages. */
+    @Bean
+    public ClientHttpRequestFactory githubWebRequestFactory(
+            @Value("${http.githubWeb.connectTimeout:10s}") Duration connectTimeout,
+            @Value("${http.githubWeb.readTimeout:15s}") Duration readTimeout) {
+        return requestFactory(connectTimeout, readTimeout);
+    }
+
+    /** api.notion.com. */
+    @Bean
+    public ClientHttpRequestFactory notionRequestFactory(
+            @Value("${http.notion.connectTimeout:10s}") Duration connectTimeout,
+            @Value("${http.notion.readTimeout:30s}") Duration readTimeout) {
+        return requestFactory(connectTimeout, readTimeout);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Clients first: closing one waits for its in-flight requests, which run on the executor
+        clients.forEach(HttpClient::close);
+        executor.close();
+    }
+
+    private ClientHttpRequestFactory requestFactory(Duration connectTimeout, Duration readTimeout) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        clients.add(client);
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(readTimeout);
+        return factory;
+    }
+}
@@ -0,0 +1,89 @@
+package se.bahram.ai.springboot_notion_app.configs;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.observation.ClientRequestObservationConvention;
+import se.bahram.ai.springboot_notion_app.services.ConditionalRequestCacheInterceptor;
+import se.bahram.ai.springboot_notion_app.services.ExpiringLruCache;
+import se.bahram.ai.springboot_notion_app.services.GitHubRateLimiter;
+import se.bahram.ai.springboot_notion_app.services.NotionPageWriter;
+import se.bahram.ai.springboot_notion_app.services.ReadmeFactsCache;
+import se.bahram.ai.springboot_notion_app.services.RepoEnrichmentService;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Meters read from state the services already keep: rate-limit headroom, cache hit ratios
+ * and the Notion write queue. Outbound HTTP timings come from Spring's client observations,
+ * LLM and pipeline stage timings are recorded where the work happens.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Picked up by Boot for every RestTemplateBuilder and RestClient.Builder. */
+    @Bean
+    public ClientRequestObservationConvention outboundRequestObservationConvention() {
+        return new OutboundRequestObservationConvention();
+    }
+
+    @Bean
+    public MeterBinder gitHubRateLimitMetrics(GitHubRateLimiter rateLimiter) {
+        return registry -> {
+            for (String resource : List.of(GitHubRateLimiter.CORE, GitHubRateLimiter.GRAPHQL)) {
+                Gauge.builder("github.ratelimit.remaining", rateLimiter, r -> r.quotaRemaining(resource))
+                        .description("X-RateLimit-Remaining from the latest GitHub response")
+                        .tag("resource", resource)
+                        .register(registry);
+                Gauge.builder("github.ratelimit.rate", rateLimiter, r -> r.ratePerSecond(resource))
+                        .description("Requests per second the token bucket currently allows")
+                        .baseUnit("requests/s")
+                        .tag("resource", resource)
+                        .register(registry);
+            }
+            FunctionCounter.builder("github.ratelimit.throttled", rateLimiter, GitHubRateLimiter::throttled)
+                    .description("403/429 responses that were retried after backing off")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(ReadmeFactsCache readmeFactsCache, ConditionalRequestCacheInterceptor httpCache,
+                                    RepoEnrichmentService repoEnrichment) {
+        return registry -> {
+            bindCache(registry, "readme-facts", readmeFactsCache, ReadmeFactsCache::hits, ReadmeFactsCache::misses);
+            bindCache(registry, "github-http", httpCache,
+                    ConditionalRequestCacheInterceptor::hits, ConditionalRequestCacheInterceptor::misses);
+            bindCache(registry, "api-repo-facts", repoEnrichment.factsCache(),
+                    ExpiringLruCache::hits, ExpiringLruCache::misses);
+            bindCache(registry, "api-readme-facts", repoEnrichment.readmeFactsCache(),
+                    ExpiringLruCache::hits, ExpiringLruCache::misses);
+        };
+    }
+
+    @Bean
+    public MeterBinder notionWriterMetrics(NotionPageWriter writer) {
+        return registry -> Gauge.builder("notion.writer.pending", writer, NotionPageWriter::pending)
+                .description("Notion calls queued behind the rate limit")
+                .register(registry);
+    }
+
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache,
+                                      ToLongFunction<T> hits, ToLongFunction<T> misses) {
+        FunctionCounter.builder("cache.requests", cache, c -> hits.applyAsLong(c))
+                .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.requests", cache, c -> misses.applyAsLong(c))
+                .tag("cache", name).tag("result", "miss").register(registry);
+        ToDoubleFunction<T> ratio = c -> {
+            long h = hits.applyAsLong(c);
+            long total = h + misses.applyAsLong(c);
+            return total == 0 ? 0 : (double) h / total;
+        };
+        Gauge.builder("cache.hit.ratio", cache, ratio).tag("cache", name).register(registry);
+    }
+}
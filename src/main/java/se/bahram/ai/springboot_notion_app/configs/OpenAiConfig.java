@@ -3,12 +3,14 @@ package se.bahram.ai.springboot_notion_app.configs;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @Configuration
 public class OpenAiConfig {
 
-    /** Expose ChatClient as a bean named "chat". */
+    /** Expose ChatClient as a bean named "chat"; created on first use, not at startup. */
     @Bean
+    @Lazy
     public ChatClient chat(ChatClient.Builder builder) {
         // Uses defaults from application.yml (model, api key, etc.)
         return builder.build();
@@ -0,0 +1,57 @@
+package se.bahram.ai.springboot_notion_app.configs;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.observation.ClientHttpObservationDocumentation.LowCardinalityKeyNames;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+
+import java.util.regex.Pattern;
+
+/**
+ * {@code http.client.requests} for every RestTemplate and RestClient, tagged with the
+ * upstream service and a bounded endpoint. Paths built by concatenation (Notion page and
+ * database ids, Trending listings) are reduced to a template so each id is not its own series.
+ */
+public class OutboundRequestObservationConvention extends DefaultClientRequestObservationConvention {
+
+    private static final Pattern SCHEME_AND_HOST = Pattern.compile("^https?://[^/]+");
+    private static final Pattern NOTION_ID = Pattern.compile(
+            "(?<=/)[0-9a-fA-F]{8}-?[0-9a-fA-F]{4}-?[0-9a-fA-F]{4}-?[0-9a-fA-F]{4}-?[0-9a-fA-F]{12}(?=/|$)");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("service", service(context.getCarrier())));
+    }
+
+    @Override
+    protected KeyValue uri(ClientRequestObservationContext context) {
+        String template = context.getUriTemplate();
+        if (template == null && context.getCarrier() != null) {
+            template = context.getCarrier().getURI().getRawPath();
+        }
+        return template == null ? super.uri(context) : KeyValue.of(LowCardinalityKeyNames.URI, endpoint(template));
+    }
+
+    /** Path part of a URI template with ids replaced by {id} and the query dropped. */
+    static String endpoint(String template) {
+        String path = SCHEME_AND_HOST.matcher(template).replaceFirst("");
+        int query = path.indexOf('?');
+        if (query >= 0) path = path.substring(0, query);
+        path = NOTION_ID.matcher(path).replaceAll("{id}");
+        return path.isEmpty() ? "/" : path;
+    }
+
+    private static String service(ClientHttpRequest request) {
+        String host = request == null ? null : request.getURI().getHost();
+        if (host == null) return "none";
+        return switch (host) {
+            case "api.github.com" -> "github";
+            case "github.com" -> "github-web";
+            case "api.notion.com" -> "notion";
+            case "api.openai.com" -> "openai";
+            default -> host;
+        };
+    }
+}
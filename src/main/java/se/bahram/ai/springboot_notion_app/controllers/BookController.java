@@ -0,0 +1,38 @@
+package se.bahram.ai.springboot_notion_app.controllers;
+
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import se.bahram.ai.springboot_notion_app.domain.BookRequest;
+import se.bahram.ai.springboot_notion_app.services.AddBookToNotionAppDatabaseService;
+import se.bahram.ai.springboot_notion_app.services.NotionUpsertService;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adds (or updates, keyed by ISBN) a book page in the Notion database.
+ * The write goes through the rate-limited Notion queue; the request completes when Notion answers.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class BookController {
+
+    private final AddBookToNotionAppDatabaseService books;
+
+    public BookController(AddBookToNotionAppDatabaseService books) {
+        this.books = books;
+    }
+
+    @PostMapping
+    public CompletableFuture<NotionUpsertService.Result> add(@Valid @RequestBody BookRequest book) {
+        return books.upsertBookPage(
+                book.name(),
+                book.author(),
+                book.isbn(),
+                book.price(),
+                book.publishedOn() == null ? null : book.publishedOn().toString(),
+                book.tags());
+    }
+}
@@ -0,0 +1,45 @@
+package se.bahram.ai.springboot_notion_app.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
+import se.bahram.ai.springboot_notion_app.domain.EnrichedRepo;
+import se.bahram.ai.springboot_notion_app.services.RepoEnrichmentService;
+
+import java.util.concurrent.CompletionException;
+
+/** Facts and README facts for a single repo, served from cache when recently seen. */
+@RestController
+@RequestMapping("/api/repos")
+public class RepoController {
+
+    private final RepoEnrichmentService enrichment;
+
+    public RepoController(RepoEnrichmentService enrichment) {
+        this.enrichment = enrichment;
+    }
+
+    @GetMapping("/{owner}/{repo}")
+    public EnrichedRepo enrich(@PathVariable String owner,
+                               @PathVariable String repo,
+                               @RequestParam(defaultValue = "false") boolean refresh) {
+        try {
+            return enrichment.enrich(owner, repo, refresh);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? notFoundOr(re) : e;
+        } catch (HttpClientErrorException e) {
+            throw notFoundOr(e);
+        }
+    }
+
+    private static RuntimeException notFoundOr(RuntimeException e) {
+        return e instanceof HttpClientErrorException.NotFound
+                ? new ResponseStatusException(HttpStatus.NOT_FOUND, "No such GitHub repo", e)
+                : e;
+    }
+}
@@ -0,0 +1,75 @@
+package se.bahram.ai.springboot_notion_app.controllers;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import se.bahram.ai.springboot_notion_app.domain.CrawlRequest;
+import se.bahram.ai.springboot_notion_app.domain.enums.GitHubTrendingDateRange;
+import se.bahram.ai.springboot_notion_app.services.TrendingJobService;
+
+import java.util.List;
+
+/**
+ * Trending crawls as background jobs: POST starts one and answers 202 with its id,
+ * GET polls it (results included once available).
+ */
+@RestController
+@RequestMapping("/api/trending/jobs")
+public class TrendingJobController {
+
+    private final TrendingJobService jobs;
+    private final List<String> defaultLanguages;
+    private final List<GitHubTrendingDateRange> defaultDateRanges;
+    private final List<String> defaultSpokenLanguages;
+
+    public TrendingJobController(
+            TrendingJobService jobs,
+            @Value("${pipeline.crawl.languages:all}") List<String> defaultLanguages,
+            @Value("${pipeline.crawl.dateRanges:daily}") List<GitHubTrendingDateRange> defaultDateRanges,
+            @Value("${pipeline.crawl.spokenLanguages:en}") List<String> defaultSpokenLanguages
+    ) {
+        this.jobs = jobs;
+        this.defaultLanguages = defaultLanguages;
+        this.defaultDateRanges = defaultDateRanges;
+        this.defaultSpokenLanguages = defaultSpokenLanguages;
+    }
+
+    @PostMapping
+    public ResponseEntity<TrendingJobService.JobStatus> start(@RequestBody(required = false) CrawlRequest request,
+                                                              UriComponentsBuilder uri) {
+        CrawlRequest r = request == null ? new CrawlRequest(null, null, null) : request;
+        TrendingJobService.JobStatus job = jobs.submit(
+                orDefault(r.languages(), defaultLanguages),
+                orDefault(r.dateRanges(), defaultDateRanges),
+                orDefault(r.spokenLanguages(), defaultSpokenLanguages));
+        return ResponseEntity
+                .accepted()
+                .location(uri.path("/api/trending/jobs/{id}").buildAndExpand(job.id()).toUri())
+                .body(job);
+    }
+
+    @GetMapping
+    public List<TrendingJobService.JobStatus> list() {
+        return jobs.list();
+    }
+
+    @GetMapping("/{id}")
+    public TrendingJobService.JobStatus status(@PathVariable String id,
+                                               @RequestParam(defaultValue = "true") boolean results) {
+        return jobs.status(id, results)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job " + id));
+    }
+
+    private static <T> List<T> orDefault(List<T> values, List<T> defaults) {
+        return values == null || values.isEmpty() ? defaults : values;
+    }
+}
@@ -0,0 +1,15 @@
+package se.bahram.ai.springboot_notion_app.domain;
+
+import se.bahram.ai.springboot_notion_app.domain.enums.GitHubTrendingDateRange;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/trending/jobs. Any list left out falls back to
+ * the pipeline.crawl.* defaults.
+ */
+public record CrawlRequest(
+        List<String> languages,                    // "all" or Trending URL languages, e.g. "python"
+        List<GitHubTrendingDateRange> dateRanges,  // daily, weekly, monthly
+        List<String> spokenLanguages               // e.g. "en"
+) {}
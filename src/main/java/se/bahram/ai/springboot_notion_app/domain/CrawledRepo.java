@@ -0,0 +1,13 @@
+package se.bahram.ai.springboot_notion_app.domain;
+
+import java.util.List;
+
+/**
+ * A repo found by a multi-listing crawl, with every listing it appeared in.
+ * {@code repo} is taken from the shortest date range it appeared in; its {@code starsToday} is 0
+ * unless the repo was on a daily listing (the period counts are on {@code appearances}).
+ */
+public record CrawledRepo(
+        GitHubRepo repo,
+        List<TrendingAppearance> appearances
+) {}
@@ -0,0 +1,16 @@
+package se.bahram.ai.springboot_notion_app.domain;
+
+/**
+ * A trending repository together with everything the pipeline collected for it.
+ * Facts that could not be fetched are null and the reason is kept in {@code error}.
+ */
+public record EnrichedRepo(
+        GitHubRepo repo,              // as scraped from Trending
+        RepoFacts facts,              // from the GitHub REST API
+        ReadmeFacts readmeFacts,      // extracted from README.md by the LLM
+        String error                  // first failure message, or null
+) {
+    public boolean failed() {
+        return error != null;
+    }
+}
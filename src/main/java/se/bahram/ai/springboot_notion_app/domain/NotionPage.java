@@ -0,0 +1,34 @@
+package se.bahram.ai.springboot_notion_app.domain;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page row returned by a Notion database / data source query.
+ */
+public record NotionPage(
+        String id,
+        String url,
+        String createdTime,
+        String lastEditedTime,
+        boolean archived,
+        Map<String, Object> properties   // raw property values, keyed by property name
+) {
+
+    /** Plain-text value of a title, rich_text, number, select, url or email property; null if absent. */
+    public String plainText(String property) {
+        if (!(properties.get(property) instanceof Map<?, ?> prop) || !(prop.get("type") instanceof String type)) {
+            return null;
+        }
+        Object value = prop.get(type);
+        if (value instanceof List<?> parts) {
+            StringBuilder sb = new StringBuilder();
+            for (Object part : parts) {
+                if (part instanceof Map<?, ?> p && p.get("plain_text") instanceof String t) sb.append(t);
+            }
+            return sb.toString();
+        }
+        if (value instanceof Map<?, ?> m && m.get("name") instanceof String name) return name;
+        return value == null ? null : value.toString();
+    }
+}
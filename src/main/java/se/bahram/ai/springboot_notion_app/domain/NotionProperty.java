@@ -0,0 +1,13 @@
+package se.bahram.ai.springboot_notion_app.domain;
+
+import java.util.List;
+
+/**
+ * One property of a Notion database as declared in its schema.
+ */
+public record NotionProperty(
+        String id,              // Notion property id
+        String name,            // display name, used as the key in page "properties"
+        String type,            // e.g. "title", "rich_text", "number", "multi_select"
+        List<String> options    // option names for select / multi_select / status, else empty
+) {}
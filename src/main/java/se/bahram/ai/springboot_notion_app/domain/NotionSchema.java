@@ -0,0 +1,58 @@
+package se.bahram.ai.springboot_notion_app.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Typed view of a Notion database definition (GET /v1/databases/{id}).
+ */
+public record NotionSchema(
+        String id,
+        String title,
+        Map<String, NotionProperty> properties   // keyed by property name
+) {
+
+    public Optional<NotionProperty> property(String name) {
+        return Optional.ofNullable(properties.get(name));
+    }
+
+    /**
+     * Checks page properties (as sent to POST/PATCH /pages) against this schema.
+     * @return problems that would make Notion reject the write; empty when valid
+     */
+    public List<String> validate(Map<String, Object> pageProperties) {
+        List<String> problems = new ArrayList<>();
+        pageProperties.forEach((name, value) -> {
+            NotionProperty prop = properties.get(name);
+            if (prop == null) {
+                problems.add("Unknown property '" + name + "'");
+            } else if (value instanceof Map<?, ?> m && !m.isEmpty() && !m.containsKey(prop.type())) {
+                problems.add("Property '" + name + "' is " + prop.type() + " but value has " + m.keySet());
+            }
+        });
+        return problems;
+    }
+
+    /**
+     * Option names used in select / multi_select values that the schema does not define yet.
+     * Notion creates these on write, so they are not errors, but usually mean a typo.
+     */
+    public List<String> unknownOptions(Map<String, Object> pageProperties) {
+        List<String> unknown = new ArrayList<>();
+        pageProperties.forEach((name, value) -> {
+            NotionProperty prop = properties.get(name);
+            if (prop == null || !(value instanceof Map<?, ?> m)) return;
+            Object v = m.get(prop.type());
+            List<?> items = v instanceof List<?> l ? l : v == null ? List.of() : List.of(v);
+            for (Object item : items) {
+                if (item instanceof Map<?, ?> option && option.get("name") instanceof String optionName
+                        && !prop.options().contains(optionName)) {
+                    unknown.add(name + ": " + optionName);
+                }
+            }
+        });
+        return unknown;
+    }
+}
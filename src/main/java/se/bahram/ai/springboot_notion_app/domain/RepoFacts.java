@@ -11,12 +11,14 @@ public record RepoFacts(
         String description,           // repo description
         int totalStars,               // stargazers_count
         int starsToday,               // parsed from Trending
-        int stars30day,               // computed via snapshots or timeline
+        Integer stars7day,            // from daily snapshots; null until history exists
+        Integer stars30day,           // via snapshots or timeline; null until history exists
+        Integer stars90day,           // from daily snapshots; null until history exists
         int forks,                    // forks_count
         int watching,                 // subscribers_count (true watchers)
         String mainLanguage,          // primary language (from /repos)
         List<String> otherLanguages,  // other languages (from /languages), sorted by bytes desc
-        int contributors,             // unique contributors (via Link rel="last" trick)
+        Integer contributors,         // unique contributors (via Link rel="last" trick); null if not fetched
         String licenseSpdx,           // SPDX id (e.g., "MIT", "Apache-2.0")
         List<String> topics           // repo topics (from /topics)
 ) {}
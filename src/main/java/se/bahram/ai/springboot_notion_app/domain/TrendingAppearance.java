@@ -0,0 +1,14 @@
+package se.bahram.ai.springboot_notion_app.domain;
+
+import se.bahram.ai.springboot_notion_app.domain.enums.GitHubTrendingDateRange;
+
+/**
+ * One listing a repo appeared in on GitHub Trending.
+ */
+public record TrendingAppearance(
+        String language,                    // "" for all languages
+        GitHubTrendingDateRange dateRange,
+        String spokenLanguage,
+        int rank,                           // 1-based position on that page
+        int stars                           // stars gained in that range
+) {}
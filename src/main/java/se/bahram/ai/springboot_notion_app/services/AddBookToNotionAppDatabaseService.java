@@ -1,17 +1,22 @@
 package se.bahram.ai.springboot_notion_app.services;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import se.bahram.ai.springboot_notion_app.domain.NotionSchema;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AddBookToNotionAppDatabaseService {
@@ -21,18 +26,36 @@ public class AddBookToNotionAppDatabaseService {
     private final String databaseId;
     private final String dataSourceId;
     private final String apiVersion;
+    private final NotionPageWriter pageWriter;
+    private final NotionUpsertService upsertService;
+    private final NotionSchemaCache schemaCache;
+    private final boolean validateSchema;
 
     public  AddBookToNotionAppDatabaseService(
+            NotionPageWriter pageWriter,
+            NotionUpsertService upsertService,
+            NotionSchemaCache schemaCache,
+            RestTemplateBuilder builder,
+            GzipDecompressingInterceptor gzip,
+            @Qualifier("notionRequestFactory") ClientHttpRequestFactory requestFactory,
             @Value("${notion.token}") String token,
             @Value("${notion.databaseId}") String databaseId,
             @Value("${notion.apiVersion}") String apiVersion,
-            @Value("${notion.dataSourceId}") String dataSourceId
+            @Value("${notion.dataSourceId}") String dataSourceId,
+            @Value("${notion.validateSchema:true}") boolean validateSchema
     ) {
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = builder
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors(gzip)
+                .build();
         this.token = token;
         this.databaseId = databaseId;
         this.apiVersion = apiVersion;
         this.dataSourceId = dataSourceId;
+        this.pageWriter = pageWriter;
+        this.upsertService = upsertService;
+        this.schemaCache = schemaCache;
+        this.validateSchema = validateSchema;
     }
 
     public Map<String, Object> createBookPage(String name,
@@ -43,17 +66,8 @@ public class AddBookToNotionAppDatabaseService {
                                               List<String> tags) {
 
 
-        Map<String, Object> requestBody = Map.of(
-                //"parent", Map.of("database_id", databaseId),
-                "parent", Map.of( "type", "data_source_id", "data_source_id", dataSourceId),
-                "properties", buildProperties(name, author, isbn, price, publishedISO, tags),
-                "children", List.of(
-                        Map.of("object","block","type","heading_2",
-                                "heading_2", Map.of("rich_text", List.of(Map.of("text", Map.of("content","Notes"))))),
-                        Map.of("object","block","type","paragraph",
-                                "paragraph", Map.of("rich_text", List.of(Map.of("text", Map.of("content","First note.")))))
-                )
-        );
+        Map<String, Object> requestBody = buildPageRequest(name, author, isbn, price, publishedISO, tags);
+        if (validateSchema) checkSchema(schemaCache.getSchema(databaseId), requestBody);
 
 
         HttpHeaders headers = new HttpHeaders();
@@ -75,12 +89,90 @@ public class AddBookToNotionAppDatabaseService {
         return response.getBody();
     }
 
-    private Map<String, Object> buildProperties(String name,
-                                                String author,
-                                                String isbn,
-                                                Double price,
-                                                String publishedISO,
-                                                List<String> tags) {
+    /**
+     * Queues the page on the rate-limited {@link NotionPageWriter} instead of blocking.
+     */
+    public CompletableFuture<Map<String, Object>> createBookPageAsync(String name,
+                                                                     String author,
+                                                                     String isbn,
+                                                                     Double price,
+                                                                     String publishedISO,
+                                                                     List<String> tags) {
+        return checkedPageRequest(name, author, isbn, price, publishedISO, tags).thenCompose(pageWriter::createPage);
+    }
+
+    /**
+     * Creates the page the first time an ISBN is seen; afterwards only sends changed properties.
+     */
+    public CompletableFuture<NotionUpsertService.Result> upsertBookPage(String name,
+                                                                       String author,
+                                                                       String isbn,
+                                                                       Double price,
+                                                                       String publishedISO,
+                                                                       List<String> tags) {
+        return checkedPageRequest(name, author, isbn, price, publishedISO, tags)
+                .thenCompose(request -> upsertService.upsert("book:" + isbn, request));
+    }
+
+    /** The page request, validated against the cached schema without blocking the caller. */
+    private CompletableFuture<Map<String, Object>> checkedPageRequest(String name,
+                                                                     String author,
+                                                                     String isbn,
+                                                                     Double price,
+                                                                     String publishedISO,
+                                                                     List<String> tags) {
+        Map<String, Object> request = buildPageRequest(name, author, isbn, price, publishedISO, tags);
+        if (!validateSchema) return CompletableFuture.completedFuture(request);
+        return schemaCache.getSchemaAsync(databaseId).thenApply(schema -> {
+            checkSchema(schema, request);
+            return request;
+        });
+    }
+
+    private Map<String, Object> buildPageRequest(String name,
+                                                 String author,
+                                                 String isbn,
+                                                 Double price,
+                                                 String publishedISO,
+                                                 List<String> tags) {
+        Map<String, Object> properties = buildProperties(name, author, isbn, price, publishedISO, tags);
+
+        return Map.of(
+                //"parent", Map.of("database_id", databaseId),
+                "parent", Map.of( "type", "data_source_id", "data_source_id", dataSourceId),
+                "properties", properties,
+                "children", List.of(
+                        Map.of("object","block","type","heading_2",
+                                "heading_2", Map.of("rich_text", List.of(Map.of("text", Map.of("content","Notes"))))),
+                        Map.of("object","block","type","paragraph",
+                                "paragraph", Map.of("rich_text", List.of(Map.of("text", Map.of("content","First note.")))))
+                )
+        );
+    }
+
+    /**
+     * Fails fast on property names or types the database does not have, using the cached
+     * schema instead of letting Notion answer with a 400.
+     */
+    @SuppressWarnings("unchecked")
+    private static void checkSchema(NotionSchema schema, Map<String, Object> pageRequest) {
+        Map<String, Object> properties = (Map<String, Object>) pageRequest.get("properties");
+        List<String> problems = schema.validate(properties);
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Page does not match Notion schema: " + problems);
+        }
+        List<String> newOptions = schema.unknownOptions(properties);
+        if (!newOptions.isEmpty()) {
+            System.out.println("Notion will create new select options: " + newOptions);
+        }
+    }
+
+    static Map<String, Object> buildProperties(String name,
+                                               String author,
+                                               String isbn,
+                                               Double price,
+                                               String publishedISO,
+                                               List<String> tags) {
         Map<String, Object> props = new LinkedHashMap<>();
 
 
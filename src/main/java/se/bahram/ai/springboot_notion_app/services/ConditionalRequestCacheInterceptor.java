@@ -0,0 +1,123 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends If-None-Match / If-Modified-Since for GETs we have seen before and
+ * replays the cached body on a 304. GitHub does not count 304s against the rate limit.
+ */
+@Component
+public class ConditionalRequestCacheInterceptor implements ClientHttpRequestInterceptor {
+
+    private final HttpResponseCacheStore store;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ConditionalRequestCacheInterceptor(HttpResponseCacheStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (request.getMethod() != HttpMethod.GET) {
+            return execution.execute(request, body);
+        }
+
+        // Same URI with a different Accept (raw README, star+json) is a different representation
+        String key = request.getURI() + "|" + request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        Optional<HttpResponseCacheStore.Entry> cached = store.get(key);
+        cached.ifPresent(e -> {
+            if (e.etag() != null) request.getHeaders().set(HttpHeaders.IF_NONE_MATCH, e.etag());
+            if (e.lastModified() != null) request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, e.lastModified());
+        });
+
+        ClientHttpResponse response = execution.execute(request, body);
+
+        if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value() && cached.isPresent()) {
+            hits.incrementAndGet();
+            response.close();
+            return new CachedResponse(cached.get().headers(), cached.get().body());
+        }
+
+        misses.incrementAndGet();
+        HttpHeaders headers = response.getHeaders();
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        if (response.getStatusCode().value() != HttpStatus.OK.value() || (etag == null && lastModified == null)) {
+            return response;
+        }
+
+        byte[] bytes;
+        try (InputStream in = response.getBody()) {
+            bytes = in.readAllBytes();
+        }
+        Map<String, List<String>> headerCopy = new LinkedHashMap<>(headers);
+        response.close();
+
+        store.put(key, new HttpResponseCacheStore.Entry(etag, lastModified, headerCopy, bytes));
+        return new CachedResponse(headerCopy, bytes);
+    }
+
+    /** GETs answered with 304 and replayed from the store. */
+    public long hits() {
+        return hits.get();
+    }
+
+    /** GETs that had to transfer a body (or failed). */
+    public long misses() {
+        return misses.get();
+    }
+
+    /** A fully buffered 200 response, either fresh or replayed from the store. */
+    private static final class CachedResponse implements ClientHttpResponse {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final byte[] body;
+
+        CachedResponse(Map<String, List<String>> headers, byte[] body) {
+            if (headers != null) this.headers.putAll(headers);
+            this.body = body == null ? new byte[0] : body;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
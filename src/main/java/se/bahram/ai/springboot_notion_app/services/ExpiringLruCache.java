@@ -0,0 +1,75 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small in-memory cache: least recently used entries are evicted beyond {@code maxEntries},
+ * and entries older than {@code ttl} (if any) are treated as absent.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private record Timed<V>(V value, long expiresAtMillis) {}
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // guarded by this; access order makes iteration order LRU-first
+    private final LinkedHashMap<K, Timed<V>> entries;
+
+    public ExpiringLruCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    /** Size-bounded only; entries never expire. */
+    public ExpiringLruCache(int maxEntries) {
+        this(maxEntries, null, Clock.systemUTC());
+    }
+
+    ExpiringLruCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttl == null ? Long.MAX_VALUE : ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Timed<V>> eldest) {
+                return size() > ExpiringLruCache.this.maxEntries;
+            }
+        };
+    }
+
+    /** The cached value, or null if absent or expired. */
+    public synchronized V get(K key) {
+        Timed<V> t = entries.get(key);
+        if (t != null && t.expiresAtMillis() <= clock.millis()) {
+            entries.remove(key);
+            t = null;
+        }
+        (t != null ? hits : misses).incrementAndGet();
+        return t == null ? null : t.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        if (value == null) return;
+        long expiresAt = ttlMillis == Long.MAX_VALUE ? Long.MAX_VALUE : clock.millis() + ttlMillis;
+        entries.put(key, new Timed<>(value, expiresAt));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+}
@@ -1,19 +1,34 @@
 package se.bahram.ai.springboot_notion_app.services;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 import se.bahram.ai.springboot_notion_app.domain.RepoFacts;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.time.OffsetDateTime;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -21,28 +36,56 @@ import java.util.stream.Collectors;
 @Service
 public class GitHubFactsService {
 
+    private static final Pattern LAST_PAGE = Pattern.compile("[?&]page=(\\d+)[^>]*>; rel=\"last\"");
+
     private final RestTemplate rest;
     private final ObjectMapper om;
+    private final ExecutorService executor;
+    private final StarSnapshotStore snapshots;
+    private final MeterRegistry meters;
+    // Concurrent lookups of the same repo (several trending lists, API clients) share one upstream call
+    private final SingleFlight<String, JsonNode> jsonFlights;
+    private final SingleFlight<String, Integer> countFlights;
+    private final SingleFlight<String, Raw> factsFlights;
 
     public GitHubFactsService(
             RestTemplateBuilder builder,
             ObjectMapper om,
-            @Value("${github.token}") String token // fine-grained PAT preferred
+            ConditionalRequestCacheInterceptor cacheInterceptor,
+            GitHubRateLimiter rateLimiter,
+            GzipDecompressingInterceptor gzip,
+            @Qualifier("githubRequestFactory") ClientHttpRequestFactory requestFactory,
+            StarSnapshotStore snapshots,
+            MeterRegistry meters,
+            @Value("${github.token}") String token, // fine-grained PAT preferred
+            @Value("${github.requestConcurrency:16}") int requestConcurrency
     ) {
         this.om = om;
+        this.snapshots = snapshots;
+        this.meters = meters;
+        this.jsonFlights = new SingleFlight<>("github", meters);
+        this.countFlights = new SingleFlight<>("github-counts", meters);
+        this.factsFlights = new SingleFlight<>("github-facts", meters);
+        // Bounded pool of virtual threads for fetchFactsAsync sub-requests
+        this.executor = Executors.newFixedThreadPool(
+                Math.max(1, requestConcurrency), Thread.ofVirtual().name("github-facts-", 0).factory());
         this.rest = builder
                 .rootUri("https://api.github.com")
-                .connectTimeout(Duration.ofSeconds(10))
-                .readTimeout(Duration.ofSeconds(20))
+                .requestFactory(() -> requestFactory)
                 .additionalInterceptors((request, body, execution) -> {
                     HttpHeaders h = request.getHeaders();
                     h.set(HttpHeaders.USER_AGENT, "TrendAgent/1.0 (+https://example.com)");
-                    h.set(HttpHeaders.ACCEPT, "application/vnd.github+json");
+                    // Keep a per-call GitHub media type (e.g. star+json for the stargazer timeline)
+                    String accept = h.getFirst(HttpHeaders.ACCEPT);
+                    if (accept == null || !accept.contains("vnd.github")) {
+                        h.set(HttpHeaders.ACCEPT, "application/vnd.github+json");
+                    }
                     if (token != null && !token.isBlank()) {
                         h.set(HttpHeaders.AUTHORIZATION, "Bearer " + token);
                     }
                     return execution.execute(request, body);
                 })
+                .additionalInterceptors(gzip, cacheInterceptor, rateLimiter)
                 .build();
     }
 
@@ -54,8 +97,94 @@ public class GitHubFactsService {
      * @param stars30dOverride provide if you snapshot star totals daily; otherwise null
      */
     public RepoFacts fetchFacts(String owner, String repo, int starsToday, Integer stars30dOverride) {
-        JsonNode repoNode = getJson("/repos/{owner}/{repo}", owner, repo);
+        JsonNode repoNode   = getJson("/repos/{owner}/{repo}", owner, repo);
+        JsonNode langNode   = getJson("/repos/{owner}/{repo}/languages", owner, repo);
+        JsonNode topicsNode = getJson("/repos/{owner}/{repo}/topics", owner, repo);
+        int contributors    = getContributorsCount(owner, repo);
+
+        return toRepoFacts(owner, repo, starsToday, stars30dOverride, repoNode, langNode, topicsNode, contributors);
+    }
+
+    /** Facts plus whether any sub-request failed and left its fields empty. */
+    public record Fetch(RepoFacts facts, boolean degraded) {}
+
+    /** Responses behind one repo's facts; {@code degraded} as in {@link Fetch}. */
+    private record Raw(JsonNode repo, JsonNode languages, JsonNode topics, int contributors, boolean degraded) {}
+
+    /**
+     * Same as {@link #fetchFacts} but sends the four sub-requests concurrently on a bounded executor.
+     * A 404 for the repo itself fails the future as soon as it arrives; any other failed
+     * sub-request does not cancel the others, its fields are left empty instead.
+     */
+    public CompletableFuture<RepoFacts> fetchFactsAsync(String owner, String repo, int starsToday, Integer stars30dOverride) {
+        return fetchAsync(owner, repo, starsToday, stars30dOverride).thenApply(Fetch::facts);
+    }
+
+    /**
+     * {@link #fetchFactsAsync} that also reports whether the facts are degraded,
+     * for callers that must not keep such facts around.
+     * Concurrent calls for the same repo share one set of sub-requests, whatever their {@code starsToday}.
+     */
+    public CompletableFuture<Fetch> fetchAsync(String owner, String repo, int starsToday, Integer stars30dOverride) {
+        // GitHub owner and repo names are case-insensitive
+        String key = (owner + "/" + repo).toLowerCase(Locale.ROOT);
+        return factsFlights.executeAsync(key, () -> fetchRawAsync(owner, repo)).thenApply(raw -> new Fetch(
+                toRepoFacts(owner, repo, starsToday, stars30dOverride,
+                        raw.repo(), raw.languages(), raw.topics(), raw.contributors()),
+                raw.degraded()));
+    }
+
+    private CompletableFuture<Raw> fetchRawAsync(String owner, String repo) {
+        CompletableFuture<JsonNode> repoF   = CompletableFuture
+                .supplyAsync(() -> getJson("/repos/{owner}/{repo}", owner, repo), executor)
+                .exceptionally(e -> {
+                    if (unwrap(e) instanceof HttpClientErrorException.NotFound) throw new CompletionException(unwrap(e));
+                    countFailure("/repos/{owner}/{repo}", e);
+                    return null;
+                });
+        CompletableFuture<JsonNode> langF   = getJsonAsync("/repos/{owner}/{repo}/languages", owner, repo);
+        CompletableFuture<JsonNode> topicsF = getJsonAsync("/repos/{owner}/{repo}/topics", owner, repo);
+        CompletableFuture<Integer> contribF = CompletableFuture
+                .supplyAsync(() -> getContributorsCount(owner, repo), executor)
+                .exceptionally(e -> {
+                    countFailure("/repos/{owner}/{repo}/contributors", e);
+                    return null;
+                });
+
+        CompletableFuture<Raw> raw = CompletableFuture.allOf(repoF, langF, topicsF, contribF).thenApply(v -> new Raw(
+                orEmpty(repoF.join()), orEmpty(langF.join()), orEmpty(topicsF.join()),
+                contribF.join() == null ? 0 : contribF.join(),
+                repoF.join() == null || langF.join() == null || topicsF.join() == null || contribF.join() == null));
+        // An unknown repo fails right away; whatever the other three return is ignored
+        repoF.whenComplete((node, e) -> {
+            if (e != null) raw.completeExceptionally(e);
+        });
+        return raw;
+    }
+
+    /** Unique contributors via the Link rel="last" trick; for callers that get the rest elsewhere. */
+    public int fetchContributorsCount(String owner, String repo) {
+        return getContributorsCount(owner, repo);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private RepoFacts toRepoFacts(String owner, String repo, int starsToday, Integer stars30dOverride,
+                                  JsonNode repoNode, JsonNode langNode, JsonNode topicsNode, int contributors) {
+        // A failed /repos leaves no count; recording it as 0 stars would corrupt later deltas
+        StarSnapshotStore.Deltas deltas = repoNode.hasNonNull("stargazers_count")
+                ? snapshots.recordAndDiff(owner, repo, repoNode.path("stargazers_count").asInt())
+                : StarSnapshotStore.Deltas.UNKNOWN;
+        return toRepoFacts(owner, repo, starsToday, stars30dOverride, repoNode, langNode, topicsNode, contributors, deltas);
+    }
 
+    /** Maps the REST responses to {@link RepoFacts}; pure, so it can be measured on recorded responses. */
+    static RepoFacts toRepoFacts(String owner, String repo, int starsToday, Integer stars30dOverride,
+                                 JsonNode repoNode, JsonNode langNode, JsonNode topicsNode, int contributors,
+                                 StarSnapshotStore.Deltas deltas) {
         String description  = textOrNull(repoNode.path("description"));
         int totalStars      = repoNode.path("stargazers_count").asInt(0);
         int forks           = repoNode.path("forks_count").asInt(0);
@@ -68,7 +197,6 @@ public class GitHubFactsService {
         String mainLanguage = textOrNull(repoNode.path("language"));
 
         // Languages (bytes per language)
-        JsonNode langNode = getJson("/repos/{owner}/{repo}/languages", owner, repo);
         Map<String,Integer> langBytes = new LinkedHashMap<>();
         langNode.fields().forEachRemaining(e -> langBytes.put(e.getKey(), e.getValue().asInt(0)));
 
@@ -80,7 +208,6 @@ public class GitHubFactsService {
                 .toList();
 
         // Topics
-        JsonNode topicsNode = getJson("/repos/{owner}/{repo}/topics", owner, repo);
         List<String> topics = new ArrayList<>();
         topicsNode.path("names").forEach(n -> topics.add(n.asText()));
 
@@ -89,11 +216,10 @@ public class GitHubFactsService {
                 ? null
                 : textOrNull(repoNode.path("license").path("spdx_id"));
 
-        // Contributors count (unique, can include anonymous)
-        int contributors = getContributorsCount(owner, repo);
-
-        // stars30day: prefer snapshots; else compute on-demand (rate-limit heavier)
-        int stars30day = (stars30dOverride != null) ? stars30dOverride : 0;
+        // Star deltas from our own daily snapshots (null without history); an explicit override still wins for 30d
+        Integer stars7day  = deltas.days7();
+        Integer stars30day = (stars30dOverride != null) ? stars30dOverride : deltas.days30();
+        Integer stars90day = deltas.days90();
 
         return new RepoFacts(
                 owner,
@@ -101,7 +227,9 @@ public class GitHubFactsService {
                 description,
                 totalStars,
                 starsToday,
+                stars7day,
                 stars30day,
+                stars90day,
                 forks,
                 watching,
                 mainLanguage,
@@ -114,9 +242,16 @@ public class GitHubFactsService {
 
     /**
      * Optional: compute stars in the last 30 days via the stargazer timeline.
-     * Prefer snapshotting daily totals instead (cheaper & more reliable).
+     * Only needed until {@link StarSnapshotStore} has 30 days of history.
+     * Stargazers are listed oldest first, so this jumps to the last page (found via the
+     * Link rel="last" trick) and walks backwards until it meets a star older than 30 days.
      */
     public int computeStars30dViaTimeline(String owner, String repo, int maxPages) {
+        return countFlights.execute("stars30d " + owner + "/" + repo + " " + maxPages,
+                () -> stars30dViaTimeline(owner, repo, maxPages));
+    }
+
+    private int stars30dViaTimeline(String owner, String repo, int maxPages) {
         // We must use a different Accept to get "starred_at" timestamps.
         HttpHeaders headers = new HttpHeaders();
         headers.set(HttpHeaders.ACCEPT, "application/vnd.github.star+json");
@@ -124,64 +259,129 @@ public class GitHubFactsService {
         HttpEntity<Void> req = new HttpEntity<>(headers);
 
         int perPage = 100;
-        OffsetDateTime threshold = OffsetDateTime.now().minusDays(30);
+        // ISO-8601 UTC with second precision, same shape as GitHub's starred_at, so we can compare chars
+        char[] threshold = DateTimeFormatter.ISO_INSTANT
+                .format(Instant.now().minus(30, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS))
+                .toCharArray();
         int count = 0;
-        int page = 1;
 
         try {
-            while (page <= maxPages) {
-                ResponseEntity<String> resp = rest.exchange(
+            // per_page=1 makes rel="last" the total number of stargazers
+            ResponseEntity<byte[]> probe = rest.exchange(
+                    "/repos/{owner}/{repo}/stargazers?per_page=1&page=1",
+                    HttpMethod.GET, req, byte[].class, owner, repo);
+            int total = lastPage(probe.getHeaders());
+            int page = total < 0 ? 1 : Math.max(1, (total + perPage - 1) / perPage);
+
+            for (int fetched = 0; page >= 1 && fetched < maxPages; fetched++, page--) {
+                ResponseEntity<byte[]> resp = rest.exchange(
                         "/repos/{owner}/{repo}/stargazers?per_page={perPage}&page={page}",
-                        HttpMethod.GET, req, String.class, owner, repo, perPage, page);
-
-                if (resp.getStatusCode().is4xxClientError() || resp.getStatusCode().is5xxServerError()) break;
-                String body = resp.getBody();
-                if (body == null || body.isBlank()) break;
-
-                JsonNode arr = om.readTree(body);
-                if (!arr.isArray() || arr.size() == 0) break;
-
-                boolean shouldStop = false;
-                for (JsonNode n : arr) {
-                    // With star+json, each item has "starred_at"
-                    String starredAt = textOrNull(n.path("starred_at"));
-                    if (starredAt == null) continue;
-                    OffsetDateTime t = OffsetDateTime.parse(starredAt);
-                    if (t.isBefore(threshold)) {
-                        shouldStop = true;
-                        break;
-                    }
-                    count++;
-                }
-
-                if (shouldStop) break;
+                        HttpMethod.GET, req, byte[].class, owner, repo, perPage, page);
 
-                // If less than a full page, no more pages
-                if (arr.size() < perPage) break;
+                byte[] body = resp.getBody();
+                if (body == null || body.length == 0) break;
 
-                page++;
+                PageCount pc = countStarredSince(om.getFactory(), body, threshold);
+                count += pc.recent();
+                if (pc.reachedOlder() || pc.items() == 0) break;
             }
         } catch (RestClientResponseException | IOException e) {
-            // Swallow and return best-effort; you may want to log this
+            // Best-effort: return what was counted so far, but keep the failure visible
+            countFailure("/repos/{owner}/{repo}/stargazers", e);
             return count;
         }
 
         return count;
     }
 
+    /** Result of scanning one stargazer page. */
+    record PageCount(int items, int recent, boolean reachedOlder) {}
+
+    /**
+     * Streams one star+json page (ascending by starred_at) and counts entries at or after
+     * {@code threshold} without building a tree or parsing dates. Once the first recent entry
+     * is found, the rest of the page is only counted, not inspected.
+     */
+    static PageCount countStarredSince(JsonFactory factory, byte[] body, char[] threshold) throws IOException {
+        int items = 0;
+        int recent = 0;
+        boolean reachedOlder = false;
+        boolean crossed = false;
+
+        try (JsonParser p = factory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_ARRAY) return new PageCount(0, 0, false);
+
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                items++;
+                if (crossed) {
+                    p.skipChildren();
+                    recent++;
+                    continue;
+                }
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    JsonToken value = p.nextToken();
+                    if ("starred_at".equals(field) && value == JsonToken.VALUE_STRING) {
+                        if (compareChars(p.getTextCharacters(), p.getTextOffset(), p.getTextLength(), threshold) >= 0) {
+                            crossed = true;
+                            recent++;
+                        } else {
+                            reachedOlder = true;
+                        }
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            }
+        }
+        return new PageCount(items, recent, reachedOlder);
+    }
+
+    private static int compareChars(char[] buf, int offset, int len, char[] other) {
+        int n = Math.min(len, other.length);
+        for (int i = 0; i < n; i++) {
+            int d = buf[offset + i] - other[i];
+            if (d != 0) return d;
+        }
+        return len - other.length;
+    }
+
     // --- helpers -------------------------------------------------------------
 
+    /** Completes with null, not an exception, when the request fails. */
+    private CompletableFuture<JsonNode> getJsonAsync(String path, Object... uriVars) {
+        return CompletableFuture
+                .supplyAsync(() -> getJson(path, uriVars), executor)
+                .exceptionally(e -> {
+                    countFailure(path, e);
+                    return null;
+                });
+    }
+
+    private JsonNode orEmpty(JsonNode node) {
+        return node == null ? om.createObjectNode() : node;
+    }
+
     private JsonNode getJson(String path, Object... uriVars) {
+        return jsonFlights.execute(path + " " + Arrays.toString(uriVars), () -> fetchJson(path, uriVars));
+    }
+
+    private JsonNode fetchJson(String path, Object... uriVars) {
         ResponseEntity<String> resp = rest.getForEntity(path, String.class, uriVars);
         String body = resp.getBody();
         try {
             return (body == null || body.isBlank()) ? om.createObjectNode() : om.readTree(body);
         } catch (IOException e) {
-            return om.createObjectNode();
+            // Fails the sub-request, so it is counted and marked degraded like any other failure
+            throw new UncheckedIOException("Unparseable response from " + path, e);
         }
     }
 
     private int getContributorsCount(String owner, String repo) {
+        return countFlights.execute("contributors " + owner + "/" + repo, () -> countContributors(owner, repo));
+    }
+
+    private int countContributors(String owner, String repo) {
         // per_page=1 makes the "last" page number equal to the total unique contributors
         ResponseEntity<String> resp = rest.exchange(
                 "/repos/{owner}/{repo}/contributors?per_page=1&anon=true",
@@ -191,15 +391,9 @@ public class GitHubFactsService {
                 owner, repo
         );
 
-        List<String> links = resp.getHeaders().get(HttpHeaders.LINK);
-        String linkHeader = (links != null && !links.isEmpty()) ? links.get(0) : null;
-
-        if (linkHeader != null && linkHeader.contains("rel=\"last\"")) {
-            // ...page=123>; rel="last"
-            Matcher m = Pattern.compile("page=(\\d+)>; rel=\"last\"").matcher(linkHeader);
-            if (m.find()) {
-                return Integer.parseInt(m.group(1));
-            }
+        int last = lastPage(resp.getHeaders());
+        if (last >= 0) {
+            return last;
         }
 
         // If no Link header (small repos), count the items in the first (only) page
@@ -207,10 +401,41 @@ public class GitHubFactsService {
             JsonNode arr = om.readTree(resp.getBody());
             return (arr != null && arr.isArray()) ? arr.size() : 0;
         } catch (IOException e) {
+            countFailure("/repos/{owner}/{repo}/contributors", e);
             return 0;
         }
     }
 
+    /** Sub-requests that degrade to empty fields instead of failing the repo. */
+    private void countFailure(String endpoint, Throwable e) {
+        Throwable cause = unwrap(e);
+        Counter.builder("github.degraded")
+                .description("GitHub sub-requests whose failure was absorbed into empty facts")
+                .tag("endpoint", endpoint)
+                .tag("exception", cause.getClass().getSimpleName())
+                .register(meters)
+                .increment();
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+    }
+
+    /** Page number of the Link rel="last" entry, or -1 when there is no such link. */
+    static int lastPage(HttpHeaders headers) {
+        List<String> links = headers.get(HttpHeaders.LINK);
+        String linkHeader = (links != null && !links.isEmpty()) ? links.get(0) : null;
+
+        if (linkHeader != null && linkHeader.contains("rel=\"last\"")) {
+            // ...page=123>; rel="last"
+            Matcher m = LAST_PAGE.matcher(linkHeader);
+            if (m.find()) {
+                return Integer.parseInt(m.group(1));
+            }
+        }
+        return -1;
+    }
+
     private static String textOrNull(JsonNode n) {
         return (n == null || n.isNull() || n.isMissingNode()) ? null : n.asText(null);
     }
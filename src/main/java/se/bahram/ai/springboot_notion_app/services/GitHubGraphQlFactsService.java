@@ -0,0 +1,192 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import se.bahram.ai.springboot_notion_app.domain.GitHubRepo;
+import se.bahram.ai.springboot_notion_app.domain.RepoFacts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fetches {@link RepoFacts} plus the README for many repos per request using one
+ * aliased GraphQL query, instead of four REST calls per repo.
+ * Contributors are not exposed by GraphQL; they are filled via the REST Link-header
+ * trick only when {@code github.graphql.includeContributors} is set, and are null (unknown) otherwise.
+ * Topics are complete (GitHub allows at most 20 per repo). Languages are limited to the
+ * 100 largest, which is one GraphQL page and more than any trending repo uses in practice;
+ * a truncated list is logged.
+ */
+@Service
+public class GitHubGraphQlFactsService {
+
+    /** Facts and README text for one repo. */
+    public record Result(RepoFacts facts, String readme) {}
+
+    private static final String REPO_FIELDS = """
+            fragment RepoFields on Repository {
+              description
+              stargazerCount
+              forkCount
+              watchers { totalCount }
+              primaryLanguage { name }
+              languages(first: 100, orderBy: {field: SIZE, direction: DESC}) { totalCount edges { size node { name } } }
+              licenseInfo { spdxId }
+              repositoryTopics(first: 20) { nodes { topic { name } } }
+              readme: object(expression: "HEAD:README.md") { ... on Blob { text } }
+              readmeLower: object(expression: "HEAD:readme.md") { ... on Blob { text } }
+            }
+            """;
+
+    private final RestTemplate rest;
+    private final ObjectMapper om;
+    private final GitHubFactsService gitHubFactsService;
+    private final StarSnapshotStore snapshots;
+    private final int batchSize;
+    private final boolean includeContributors;
+
+    public GitHubGraphQlFactsService(
+            RestTemplateBuilder builder,
+            ObjectMapper om,
+            GitHubRateLimiter rateLimiter,
+            GzipDecompressingInterceptor gzip,
+            @Qualifier("githubRequestFactory") ClientHttpRequestFactory requestFactory,
+            GitHubFactsService gitHubFactsService,
+            StarSnapshotStore snapshots,
+            @Value("${github.token}") String token,
+            @Value("${github.graphql.batchSize:25}") int batchSize,
+            @Value("${github.graphql.includeContributors:false}") boolean includeContributors
+    ) {
+        this.om = om;
+        this.gitHubFactsService = gitHubFactsService;
+        this.snapshots = snapshots;
+        this.batchSize = Math.max(1, batchSize);
+        this.includeContributors = includeContributors;
+        this.rest = builder
+                .rootUri("https://api.github.com")
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors((request, body, execution) -> {
+                    HttpHeaders h = request.getHeaders();
+                    h.set(HttpHeaders.USER_AGENT, "TrendAgent/1.0 (+https://example.com)");
+                    h.setContentType(MediaType.APPLICATION_JSON);
+                    // GraphQL always needs a token
+                    if (token != null && !token.isBlank()) {
+                        h.set(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+                    }
+                    return execution.execute(request, body);
+                })
+                .additionalInterceptors(gzip, rateLimiter)
+                .build();
+    }
+
+    /**
+     * Fetches facts for all repos, {@code github.graphql.batchSize} per request.
+     * Repos that GraphQL could not resolve (renamed, private, errors) are absent from the result.
+     * @return results keyed by "owner/repo"
+     */
+    public Map<String, Result> fetchFacts(List<GitHubRepo> repos) {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (int from = 0; from < repos.size(); from += batchSize) {
+            List<GitHubRepo> batch = repos.subList(from, Math.min(repos.size(), from + batchSize));
+            try {
+                results.putAll(fetchBatch(batch));
+            } catch (RuntimeException | IOException e) {
+                System.out.println("GraphQL batch failed, callers fall back to REST: " + e.getMessage());
+            }
+        }
+        return results;
+    }
+
+    private Map<String, Result> fetchBatch(List<GitHubRepo> batch) throws IOException {
+        StringBuilder query = new StringBuilder("query(");
+        Map<String, Object> variables = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            query.append(i == 0 ? "" : ", ").append("$o").append(i).append(": String!, $n").append(i).append(": String!");
+            variables.put("o" + i, batch.get(i).owner());
+            variables.put("n" + i, batch.get(i).repo());
+        }
+        query.append(") {\n");
+        for (int i = 0; i < batch.size(); i++) {
+            query.append("  r").append(i).append(": repository(owner: $o").append(i)
+                    .append(", name: $n").append(i).append(") { ...RepoFields }\n");
+        }
+        query.append("}\n").append(REPO_FIELDS);
+
+        String body = rest.postForObject("/graphql", Map.of("query", query.toString(), "variables", variables), String.class);
+        JsonNode data = om.readTree(body == null ? "{}" : body).path("data");
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            GitHubRepo repo = batch.get(i);
+            JsonNode node = data.path("r" + i);
+            if (node.isMissingNode() || node.isNull()) continue;
+            results.put(repo.owner() + "/" + repo.repo(), toResult(repo, node));
+        }
+        return results;
+    }
+
+    private Result toResult(GitHubRepo repo, JsonNode n) {
+        String mainLanguage = textOrNull(n.path("primaryLanguage").path("name"));
+
+        // Already sorted by size desc
+        List<String> otherLanguages = new ArrayList<>();
+        JsonNode languages = n.path("languages");
+        languages.path("edges").forEach(e -> {
+            String name = e.path("node").path("name").asText(null);
+            if (name != null && !name.equalsIgnoreCase(mainLanguage)) otherLanguages.add(name);
+        });
+        if (languages.path("totalCount").asInt(0) > languages.path("edges").size()) {
+            System.out.println("GraphQL languages truncated for " + repo.owner() + "/" + repo.repo()
+                    + ": " + languages.path("edges").size() + " of " + languages.path("totalCount").asInt());
+        }
+
+        List<String> topics = new ArrayList<>();
+        n.path("repositoryTopics").path("nodes").forEach(t -> topics.add(t.path("topic").path("name").asText()));
+
+        String licenseSpdx = textOrNull(n.path("licenseInfo").path("spdxId"));
+
+        int totalStars = n.path("stargazerCount").asInt(0);
+        StarSnapshotStore.Deltas deltas = n.hasNonNull("stargazerCount")
+                ? snapshots.recordAndDiff(repo.owner(), repo.repo(), totalStars)
+                : StarSnapshotStore.Deltas.UNKNOWN;
+
+        Integer contributors = includeContributors ? gitHubFactsService.fetchContributorsCount(repo.owner(), repo.repo()) : null;
+
+        RepoFacts facts = new RepoFacts(
+                repo.owner(),
+                repo.repo(),
+                textOrNull(n.path("description")),
+                totalStars,
+                repo.starsToday(),
+                deltas.days7(),
+                deltas.days30(),
+                deltas.days90(),
+                n.path("forkCount").asInt(0),
+                n.path("watchers").path("totalCount").asInt(0),
+                mainLanguage,
+                otherLanguages,
+                contributors,
+                licenseSpdx,
+                topics
+        );
+
+        String readme = textOrNull(n.path("readme").path("text"));
+        if (readme == null) readme = textOrNull(n.path("readmeLower").path("text"));
+        return new Result(facts, readme);
+    }
+
+    private static String textOrNull(JsonNode n) {
+        return (n == null || n.isNull() || n.isMissingNode()) ? null : n.asText(null);
+    }
+}
@@ -0,0 +1,226 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for every GitHub call, one per rate-limit resource ({@code core} for REST,
+ * {@code graphql} for {@code /graphql}), since GitHub meters them separately. Each bucket refills at
+ * {@code requestsPerSecond} until its X-RateLimit-Remaining nears {@code quotaReserve}; from then on
+ * what is left is spread over the time until X-RateLimit-Reset. 403/429 responses
+ * pause the bucket (honouring Retry-After) and are retried with jittered backoff; without Retry-After or
+ * an exhausted quota they are secondary rate limits, retried after a minute, doubling each time.
+ * Optional calls (stargazer timeline) only run while core calls have headroom.
+ * Register it as the LAST interceptor so retries re-send the request as-is.
+ */
+@Component
+public class GitHubRateLimiter implements ClientHttpRequestInterceptor {
+
+    public enum Priority { CORE, OPTIONAL }
+
+    public static final String CORE = "core";
+    public static final String GRAPHQL = "graphql";
+
+    private static final long SECONDARY_LIMIT_MILLIS = 60_000;
+
+    /** Waits between retries; replaced in tests. */
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final double maxRatePerSecond;
+    private final double burst;
+    private final int quotaReserve;
+    private final int maxRetries;
+    private final Clock clock;
+    private final Sleeper sleeper;
+    private final AtomicLong throttled = new AtomicLong();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /** State of one rate-limit resource. */
+    private final class Bucket {
+        // guarded by this
+        private double tokens = burst;
+        private double ratePerSecond = maxRatePerSecond;
+        private long lastRefillNanos = System.nanoTime();
+        private long pausedUntilMillis;
+        private int quotaRemaining = Integer.MAX_VALUE;
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) / 1e9 * ratePerSecond);
+            lastRefillNanos = now;
+        }
+    }
+
+    @Autowired
+    public GitHubRateLimiter(
+            @Value("${github.rateLimit.requestsPerSecond:10}") double maxRatePerSecond,
+            @Value("${github.rateLimit.burst:20}") int burst,
+            @Value("${github.rateLimit.quotaReserve:200}") int quotaReserve,
+            @Value("${github.rateLimit.maxRetries:4}") int maxRetries
+    ) {
+        this(maxRatePerSecond, burst, quotaReserve, maxRetries, Clock.systemUTC(), Thread::sleep);
+    }
+
+    GitHubRateLimiter(double maxRatePerSecond, int burst, int quotaReserve, int maxRetries, Clock clock, Sleeper sleeper) {
+        this.maxRatePerSecond = maxRatePerSecond;
+        this.burst = Math.max(1, burst);
+        this.quotaReserve = quotaReserve;
+        this.maxRetries = maxRetries;
+        this.clock = clock;
+        this.sleeper = sleeper;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        Priority priority = priorityOf(request);
+        String resource = resourceOf(request);
+        for (int attempt = 0; ; attempt++) {
+            acquire(resource, priority);
+            ClientHttpResponse response = execution.execute(request, body);
+            int status = response.getStatusCode().value();
+            HttpHeaders headers = response.getHeaders();
+            // GitHub names the resource it charged; trust it over the path when present
+            String charged = headers.getFirst("X-RateLimit-Resource");
+            long retryAfterMillis = update(bucket(charged != null ? charged : resource), headers, status, attempt);
+
+            if ((status != 403 && status != 429) || retryAfterMillis < 0 || attempt >= maxRetries) {
+                return response;
+            }
+            response.close();
+            throttled.incrementAndGet();
+            sleep(backoff(attempt, retryAfterMillis));
+        }
+    }
+
+    /** Blocks until a token of the given resource is available for the given priority. */
+    public void acquire(String resource, Priority priority) throws IOException {
+        Bucket b = bucket(resource);
+        while (true) {
+            long waitMillis;
+            synchronized (b) {
+                b.refill();
+                long now = clock.millis();
+                boolean allowed = priority == Priority.CORE
+                        ? b.tokens >= 1
+                        : b.tokens >= 1 + burst / 2 && b.quotaRemaining > quotaReserve;
+                if (now >= b.pausedUntilMillis && allowed) {
+                    b.tokens -= 1;
+                    return;
+                }
+                waitMillis = Math.max(b.pausedUntilMillis - now, (long) Math.ceil(1000 / Math.max(b.ratePerSecond, 0.01)));
+            }
+            sleep(waitMillis);
+        }
+    }
+
+    public int quotaRemaining(String resource) {
+        Bucket b = bucket(resource);
+        synchronized (b) {
+            return b.quotaRemaining;
+        }
+    }
+
+    /** Current refill rate of a resource after adapting to its remaining quota. */
+    public double ratePerSecond(String resource) {
+        Bucket b = bucket(resource);
+        synchronized (b) {
+            return b.ratePerSecond;
+        }
+    }
+
+    /** Number of throttled responses that were retried. */
+    public long throttled() {
+        return throttled.get();
+    }
+
+    private Bucket bucket(String resource) {
+        return buckets.computeIfAbsent(resource, r -> new Bucket());
+    }
+
+    /**
+     * Adapts a bucket to GitHub's headers.
+     * @return how long to wait before retrying a throttled response, or -1 if it was not throttling
+     */
+    private long update(Bucket b, HttpHeaders headers, int status, int attempt) {
+        synchronized (b) {
+            long now = clock.millis();
+            Integer remaining = intHeader(headers, "X-RateLimit-Remaining");
+            Integer resetEpoch = intHeader(headers, "X-RateLimit-Reset");
+            Integer retryAfter = intHeader(headers, HttpHeaders.RETRY_AFTER);
+
+            if (remaining != null) {
+                b.quotaRemaining = remaining;
+                if (resetEpoch != null && remaining <= 2 * quotaReserve) {
+                    double secondsLeft = Math.max(1, resetEpoch - now / 1000.0);
+                    // Close to the reserve: spread what is left of the quota over the rest of the window
+                    b.ratePerSecond = Math.min(maxRatePerSecond, Math.max(0.05, remaining / secondsLeft));
+                } else {
+                    b.ratePerSecond = maxRatePerSecond;
+                }
+            }
+
+            if (status != 403 && status != 429) return -1;
+
+            long waitMillis;
+            if (retryAfter != null) {
+                waitMillis = retryAfter * 1000L;
+            } else if (remaining != null && remaining == 0 && resetEpoch != null) {
+                waitMillis = Math.max(0, resetEpoch * 1000L - now);
+            } else {
+                // Secondary limit: GitHub asks for at least a minute, longer while it persists
+                waitMillis = SECONDARY_LIMIT_MILLIS << Math.min(attempt, 4);
+            }
+            b.pausedUntilMillis = Math.max(b.pausedUntilMillis, now + waitMillis);
+            return waitMillis;
+        }
+    }
+
+    private static long backoff(int attempt, long retryAfterMillis) {
+        long base = Math.max(retryAfterMillis, 1000L << Math.min(attempt, 6));
+        return base + ThreadLocalRandom.current().nextLong(base / 4 + 1);
+    }
+
+    private static String resourceOf(HttpRequest request) {
+        String path = request.getURI().getPath();
+        return path != null && path.endsWith("/graphql") ? GRAPHQL : CORE;
+    }
+
+    private static Priority priorityOf(HttpRequest request) {
+        String path = request.getURI().getPath();
+        return path != null && path.endsWith("/stargazers") ? Priority.OPTIONAL : Priority.CORE;
+    }
+
+    private static Integer intHeader(HttpHeaders headers, String name) {
+        String v = headers.getFirst(name);
+        if (v == null) return null;
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void sleep(long millis) throws IOException {
+        try {
+            sleeper.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for GitHub rate limit", e);
+        }
+    }
+}
@@ -1,23 +1,56 @@
 package se.bahram.ai.springboot_notion_app.services;
 
-import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
 import se.bahram.ai.springboot_notion_app.domain.GitHubRepo;
 import se.bahram.ai.springboot_notion_app.domain.enums.GitHubTrendingDateRange;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.regex.Pattern;
 
 @Service
 public class GitHubTrendingScraper {
 
-    private static final Pattern OWNER_REPO = Pattern.compile("^/([^/]+)/([^/]+)$");
+    // Parsed once; jsoup would otherwise re-parse the query for every card
+    private static final Evaluator REPO_CARD = QueryParser.parse("article.Box-row");
+    private static final Evaluator REPO_LINK = QueryParser.parse("h2 a[href]");
+    private static final Evaluator DESCRIPTION = QueryParser.parse("p");
+    private static final Evaluator LANGUAGE = QueryParser.parse("[itemprop=programmingLanguage]");
+    private static final Evaluator STARS_TODAY = QueryParser.parse("span.float-sm-right");
+
+    private final RestTemplate rest;
+    private final boolean streaming;
+
+    public GitHubTrendingScraper(
+            RestTemplateBuilder builder,
+            GzipDecompressingInterceptor gzip,
+            @Qualifier("githubWebRequestFactory") ClientHttpRequestFactory requestFactory,
+            @Value("${github.trendingStreaming:true}") boolean streaming
+    ) {
+        this.streaming = streaming;
+        this.rest = builder
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors(gzip)
+                .build();
+    }
 
     public List<GitHubRepo> fetch(String language, GitHubTrendingDateRange dateRange, String spokenLanguage) throws IOException {
 
@@ -29,68 +62,101 @@ public class GitHubTrendingScraper {
         String url = baseUrl + path + "?since=" + since + "&spoken_language_code=" + spoken;
         System.out.println("Fetching GitHub Trending from: " + url);
 
-        Connection jsoupConn = Jsoup.connect(url)
-                .timeout(15000)
-                .followRedirects(true)
-                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36")
-                .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
-                .header("Accept-Language", "en-US,en;q=0.9");
-
-        Document doc = jsoupConn.get();
-
-        return doc.select("article.Box-row").stream()
-                // ensure it's a regular repo card like /owner/repo
-                .map(card -> {
-                    Element a = card.selectFirst("h2 a[href]");
-                    if (a == null) return null;
-
-                    String href = a.attr("href"); // e.g. /owner/repo
-                    var m = OWNER_REPO.matcher(href);
-                    if (!m.matches()) return null;
-
-                    String owner = m.group(1);
-                    String repo  = m.group(2);
-
-                    String desc = Optional.ofNullable(card.selectFirst("p"))
-                            .map(Element::text).orElse("");
-
-                    String lang = Optional.ofNullable(card.selectFirst("[itemprop=programmingLanguage]"))
-                            .map(Element::text).orElse("");
-
-                    // Prefer language-agnostic spot for daily stars.
-                    // If not present, fall back to the English phrase.
-                    int starsToday = Optional.ofNullable(card.selectFirst("span.float-sm-right"))
-                            .map(Element::text)
-                            .map(t -> t.replaceAll("\\D+", ""))
-                            .filter(s -> !s.isEmpty())
-                            .map(Integer::parseInt)
-                            .orElseGet(() -> safeParseInt(
-                                    card.select("span:matchesOwn(stars today)")
-                                            .text().replaceAll("\\D+", ""))
-                            );
-
-                    String repoUrl = "https://github.com/" + owner + "/" + repo;
-
-                    // ⬇️ Adjust this constructor to your actual GitHubRepo signature.
-                    // If your GitHubRepo still expects fullName, build it with owner + "/" + repo.
-                    return new GitHubRepo(
-                            owner,
-                            repo,
-                            desc,
-                            lang,
-                            starsToday,
-                            repoUrl
-                    );
-                })
+        return rest.execute(url, HttpMethod.GET,
+                request -> {
+                    HttpHeaders h = request.getHeaders();
+                    h.set(HttpHeaders.USER_AGENT, "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36");
+                    h.set(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+                    h.set(HttpHeaders.ACCEPT_LANGUAGE, "en-US,en;q=0.9");
+                },
+                response -> streaming
+                        ? parseStreaming(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8), url)
+                        : parseDocument(Jsoup.parse(response.getBody(), null, url)));
+    }
+
+    /** Parses a fully built document (the original mode). */
+    static List<GitHubRepo> parseDocument(Document doc) {
+        return doc.select(REPO_CARD).stream()
+                .map(GitHubTrendingScraper::parseCard)
                 .filter(Objects::nonNull)
                 .toList();
     }
 
-    private static int safeParseInt(String s) {
-        try {
-            return (s == null || s.isBlank()) ? 0 : Integer.parseInt(s);
-        } catch (NumberFormatException e) {
-            return 0;
+    /**
+     * Parses cards as the HTML arrives; each card is detached once read,
+     * so the document never holds more than one card's subtree.
+     */
+    static List<GitHubRepo> parseStreaming(Reader html, String baseUri) throws IOException {
+        List<GitHubRepo> repos = new ArrayList<>();
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(html, baseUri)) {
+            Element card;
+            while ((card = streamer.selectNext(REPO_CARD)) != null) {
+                GitHubRepo repo = parseCard(card);
+                if (repo != null) repos.add(repo);
+                card.remove();
+            }
+        }
+        return repos;
+    }
+
+    /** Maps one article.Box-row to a repo, or null if it is not a regular /owner/repo card. */
+    static GitHubRepo parseCard(Element card) {
+        Element a = card.selectFirst(REPO_LINK);
+        if (a == null) return null;
+
+        // ensure it's a regular repo card like /owner/repo
+        String href = a.attr("href");
+        int second = href.indexOf('/', 1);
+        if (!href.startsWith("/") || second < 2 || second == href.length() - 1 || href.indexOf('/', second + 1) >= 0) {
+            return null;
+        }
+        String owner = href.substring(1, second);
+        String repo  = href.substring(second + 1);
+
+        Element p = card.selectFirst(DESCRIPTION);
+        String desc = p == null ? "" : p.text();
+
+        Element l = card.selectFirst(LANGUAGE);
+        String lang = l == null ? "" : l.text();
+
+        // Prefer language-agnostic spot for daily stars.
+        // If not present, fall back to the English phrase.
+        Element stars = card.selectFirst(STARS_TODAY);
+        int starsToday = stars == null ? -1 : parseDigits(stars.text());
+        if (starsToday < 0) {
+            starsToday = 0;
+            for (Element span : card.getElementsByTag("span")) {
+                String own = span.ownText();
+                if (own.contains("stars today")) {
+                    starsToday = Math.max(0, parseDigits(own));
+                    break;
+                }
+            }
+        }
+
+        String repoUrl = "https://github.com/" + owner + "/" + repo;
+
+        return new GitHubRepo(
+                owner,
+                repo,
+                desc,
+                lang,
+                starsToday,
+                repoUrl
+        );
+    }
+
+    /** Concatenates the digits in {@code s} ("1,234 stars today" -> 1234); -1 if there are none. */
+    static int parseDigits(String s) {
+        long n = 0;
+        boolean any = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                n = Math.min(Integer.MAX_VALUE, n * 10 + (c - '0'));
+                any = true;
+            }
         }
+        return any ? (int) n : -1;
     }
 }
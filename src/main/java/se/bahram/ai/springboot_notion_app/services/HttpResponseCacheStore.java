@@ -0,0 +1,61 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Disk-backed store of GitHub responses with their validators (ETag / Last-Modified).
+ * One JSON file per request key (at most {@code github.httpCacheMaxFiles}, least recently used
+ * pruned first), fronted by an LRU of {@code github.httpCacheMemoryEntries} entries.
+ */
+@Component
+public class HttpResponseCacheStore {
+
+    /** What we need to replay a response after a 304. */
+    public record Entry(
+            String etag,
+            String lastModified,
+            Map<String, List<String>> headers,
+            byte[] body
+    ) {}
+
+    private final JsonFileStore disk;
+    private final ExpiringLruCache<String, Entry> memory;
+
+    public HttpResponseCacheStore(
+            ObjectMapper om,
+            @Value("${github.httpCacheDir:.cache/github-http}") String dir,
+            @Value("${github.httpCacheMemoryEntries:2000}") int memoryEntries,
+            @Value("${github.httpCacheMaxFiles:20000}") int maxFiles
+    ) {
+        this.disk = new JsonFileStore(om, Path.of(dir), maxFiles);
+        this.memory = new ExpiringLruCache<>(memoryEntries);
+    }
+
+    public Optional<Entry> get(String key) {
+        Entry cached = memory.get(key);
+        if (cached != null) return Optional.of(cached);
+
+        // Corrupt entry: treat as a miss, it will be overwritten on the next 200
+        Entry entry = disk.read(key, Entry.class);
+        if (entry != null) memory.put(key, entry);
+        return Optional.ofNullable(entry);
+    }
+
+    public void put(String key, Entry entry) {
+        memory.put(key, entry);
+        try {
+            disk.write(key, entry);
+        } catch (IOException e) {
+            // Disk is best-effort; the in-memory copy still serves this run
+            System.out.println("Could not persist HTTP cache entry: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * One JSON file per key in a directory, capped at {@code maxFiles}.
+ * Reads bump a file's modification time, so pruning drops the least recently used files first.
+ * Pruning runs every {@code maxFiles / 10} writes and trims the directory to 90% of the cap.
+ */
+final class JsonFileStore {
+
+    private final ObjectMapper om;
+    private final Path dir;
+    private final int maxFiles;
+    private final int pruneEvery;
+    private final AtomicInteger writesSincePrune = new AtomicInteger();
+
+    JsonFileStore(ObjectMapper om, Path dir, int maxFiles) {
+        this.om = om;
+        this.dir = dir;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.pruneEvery = Math.max(1, this.maxFiles / 10);
+        // Entries left over from earlier runs count against the cap too
+        writesSincePrune.set(pruneEvery);
+    }
+
+    /** The stored value, or null if absent or unreadable. */
+    <T> T read(String key, Class<T> type) {
+        Path file = fileFor(key);
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            T value = om.readValue(file.toFile(), type);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return value;
+        } catch (IOException e) {
+            // Corrupt or concurrently pruned: treat as a miss, it will be overwritten on the next write
+            return null;
+        }
+    }
+
+    void write(String key, Object value) throws IOException {
+        Files.createDirectories(dir);
+        Path file = fileFor(key);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        om.writeValue(tmp.toFile(), value);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (writesSincePrune.incrementAndGet() >= pruneEvery) {
+            writesSincePrune.set(0);
+            prune();
+        }
+    }
+
+    /** Deletes the least recently used files beyond 90% of {@code maxFiles}. */
+    synchronized void prune() {
+        if (!Files.isDirectory(dir)) return;
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> p.getFileName().toString().endsWith(".json")).toList();
+        } catch (IOException e) {
+            return;
+        }
+        if (files.size() <= maxFiles) return;
+
+        int keep = maxFiles - maxFiles / 10;
+        files.stream()
+                .sorted(Comparator.comparingLong(JsonFileStore::lastModified))
+                .limit(files.size() - keep)
+                .forEach(p -> {
+                    try {
+                        Files.deleteIfExists(p);
+                    } catch (IOException ignored) {
+                        // retried on the next prune
+                    }
+                });
+    }
+
+    private static long lastModified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private Path fileFor(String key) {
+        return dir.resolve(Hashes.sha256Hex(key) + ".json");
+    }
+}
@@ -0,0 +1,191 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.BulletList;
+import org.commonmark.node.Code;
+import org.commonmark.node.FencedCodeBlock;
+import org.commonmark.node.HardLineBreak;
+import org.commonmark.node.Heading;
+import org.commonmark.node.Image;
+import org.commonmark.node.IndentedCodeBlock;
+import org.commonmark.node.ListItem;
+import org.commonmark.node.Node;
+import org.commonmark.node.OrderedList;
+import org.commonmark.node.Paragraph;
+import org.commonmark.node.SoftLineBreak;
+import org.commonmark.node.Text;
+import org.commonmark.parser.Parser;
+import org.springframework.stereotype.Component;
+import se.bahram.ai.springboot_notion_app.domain.ReadmeFacts;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Pulls {@link ReadmeFacts} out of a README's Markdown structure without a model:
+ * the one-liner from the first paragraph, key features / use cases / limitations
+ * from bullet lists under matching headings, and install methods from install
+ * commands in code blocks. Every field comes with a confidence in [0, 1] so the
+ * caller can decide which fields still need the LLM.
+ */
+@Component
+public class MarkdownReadmeExtractor {
+
+    public static final String ONE_LINER = "oneLiner";
+    public static final String KEY_FEATURES = "keyFeatures";
+    public static final String PRIMARY_USE_CASES = "primaryUseCases";
+    public static final String INSTALL_METHODS = "installMethods";
+    public static final String LIMITATIONS = "limitations";
+    public static final String TARGET_AUDIENCE = "targetAudience";
+
+    public static final List<String> FIELDS =
+            List.of(ONE_LINER, KEY_FEATURES, PRIMARY_USE_CASES, INSTALL_METHODS, LIMITATIONS, TARGET_AUDIENCE);
+
+    /** Local result: facts plus a confidence per field name (absent = 0). */
+    public record Extraction(ReadmeFacts facts, Map<String, Double> confidence) {
+
+        public double confidence(String field) {
+            return confidence.getOrDefault(field, 0.0);
+        }
+    }
+
+    private static final Pattern INSTALL_COMMAND = Pattern.compile(
+            "^(?:npm (?:i|install)|pnpm (?:add|install)|yarn (?:global )?add|bun (?:add|install)|npx"
+                    + "|pip3? install|pipx install|uv (?:pip install|tool install|add)|poetry add|conda install"
+                    + "|brew install|cargo (?:install|add)|go (?:install|get)|gem install|composer require"
+                    + "|dotnet (?:add package|tool install)|apt(?:-get)? install|sudo apt(?:-get)? install"
+                    + "|docker (?:run|pull)|docker compose up|helm install|curl .*\\|\\s*(?:ba|z)?sh|wget .*\\|\\s*(?:ba|z)?sh)\\b.*");
+    private static final Pattern SHELL_PROMPT = Pattern.compile("^(?:\\$|>|%)\\s+");
+    private static final Pattern FEATURES = Pattern.compile("feature|highlight|why\\b|what it does|capabilit");
+    private static final Pattern USE_CASES = Pattern.compile("use[ -]?case|what (?:can|is it for)|who is this for|applications");
+    private static final Pattern LIMITATIONS_HEADING = Pattern.compile("limitation|caveat|known issue|not supported|drawback");
+    private static final Pattern INSTALL_HEADING = Pattern.compile("install|getting started|quick ?start|setup");
+
+    private static final int MAX_ITEMS = 10;
+    private static final int MAX_ITEM_CHARS = 200;
+
+    private final Parser parser = Parser.builder().build();
+
+    public Extraction extract(String readme) {
+        Node doc = parser.parse(readme == null ? "" : readme);
+
+        String oneLiner = null;
+        double oneLinerConfidence = 0;
+        Map<String, List<String>> lists = new LinkedHashMap<>();
+        Map<String, Double> confidence = new LinkedHashMap<>();
+        Set<String> install = new LinkedHashSet<>();
+        boolean installUnderHeading = false;
+
+        String heading = "";
+        boolean seenSubheading = false;
+        for (Node node = doc.getFirstChild(); node != null; node = node.getNext()) {
+            if (node instanceof Heading h) {
+                heading = text(h).toLowerCase(Locale.ROOT);
+                if (h.getLevel() > 1) seenSubheading = true;
+            } else if (node instanceof Paragraph p && oneLiner == null) {
+                String candidate = text(p);
+                if (isSentence(candidate)) {
+                    oneLiner = truncate(candidate);
+                    // The intro paragraph before any section heading is almost always the tagline
+                    oneLinerConfidence = seenSubheading ? 0.6 : 0.9;
+                }
+            } else if (node instanceof BulletList || node instanceof OrderedList) {
+                String field = FEATURES.matcher(heading).find() ? KEY_FEATURES
+                        : USE_CASES.matcher(heading).find() ? PRIMARY_USE_CASES
+                        : LIMITATIONS_HEADING.matcher(heading).find() ? LIMITATIONS
+                        : null;
+                if (field != null && !lists.containsKey(field)) {
+                    List<String> items = items(node);
+                    if (!items.isEmpty()) {
+                        lists.put(field, items);
+                        confidence.put(field, items.size() >= 2 ? 0.9 : 0.6);
+                    }
+                }
+            } else if (node instanceof FencedCodeBlock || node instanceof IndentedCodeBlock) {
+                String code = node instanceof FencedCodeBlock f ? f.getLiteral() : ((IndentedCodeBlock) node).getLiteral();
+                int before = install.size();
+                installCommands(code, install);
+                if (install.size() > before && INSTALL_HEADING.matcher(heading).find()) installUnderHeading = true;
+            }
+        }
+
+        if (oneLiner != null) confidence.put(ONE_LINER, oneLinerConfidence);
+        if (!install.isEmpty()) confidence.put(INSTALL_METHODS, installUnderHeading ? 0.9 : 0.75);
+
+        ReadmeFacts facts = new ReadmeFacts(
+                oneLiner,
+                lists.get(KEY_FEATURES),
+                lists.get(PRIMARY_USE_CASES),
+                install.isEmpty() ? null : List.copyOf(install).subList(0, Math.min(install.size(), 5)),
+                lists.get(LIMITATIONS),
+                null    // not structural; left to the model
+        );
+        return new Extraction(facts, confidence);
+    }
+
+    private static void installCommands(String code, Set<String> out) {
+        for (String line : code.split("\n")) {
+            String cmd = SHELL_PROMPT.matcher(line.strip()).replaceFirst("");
+            if (INSTALL_COMMAND.matcher(cmd).matches()) out.add(cmd);
+        }
+    }
+
+    private static List<String> items(Node list) {
+        List<String> items = new ArrayList<>();
+        for (Node item = list.getFirstChild(); item != null && items.size() < MAX_ITEMS; item = item.getNext()) {
+            if (!(item instanceof ListItem)) continue;
+            // Only the item's own first block; nested lists are detail, not features
+            Node first = item.getFirstChild();
+            String t = first instanceof Paragraph ? text(first) : "";
+            if (!t.isBlank()) items.add(truncate(t));
+        }
+        return items;
+    }
+
+    /** A real sentence rather than a badge row, a link list or a one-word title. */
+    private static boolean isSentence(String s) {
+        return s.length() >= 20 && s.indexOf(' ') > 0 && Character.isLetter(s.codePointAt(0));
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= MAX_ITEM_CHARS ? s : s.substring(0, MAX_ITEM_CHARS).strip() + "…";
+    }
+
+    /** Plain text of a node: link text kept, images and HTML dropped. */
+    static String text(Node node) {
+        StringBuilder sb = new StringBuilder();
+        node.accept(new AbstractVisitor() {
+            @Override
+            public void visit(Text text) {
+                sb.append(text.getLiteral());
+            }
+
+            @Override
+            public void visit(Code code) {
+                sb.append(code.getLiteral());
+            }
+
+            @Override
+            public void visit(SoftLineBreak softLineBreak) {
+                sb.append(' ');
+            }
+
+            @Override
+            public void visit(HardLineBreak hardLineBreak) {
+                sb.append(' ');
+            }
+
+            @Override
+            public void visit(Image image) {
+                // alt text of badges and logos is noise
+            }
+        });
+        return sb.toString().replaceAll("\\s+", " ").strip();
+    }
+}
@@ -0,0 +1,89 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local index from a natural key (ISBN, owner/repo) to the Notion page we wrote for it,
+ * with a hash per property as last written. Persisted as one JSON file: right away for a new key,
+ * so a crash never forgets a page that exists in Notion, and every {@code FLUSH_EVERY} updates otherwise.
+ */
+@Component
+public class NotionPageIndex {
+
+    /**
+     * @param propertyTypes Notion type per property as last written, so a property dropped from
+     *                      later requests can be cleared
+     */
+    public record Entry(String pageId, Map<String, String> propertyHashes, Map<String, String> propertyTypes) {
+
+        public Entry {
+            Objects.requireNonNull(propertyTypes, "propertyTypes");
+        }
+    }
+
+    private static final int FLUSH_EVERY = 50;
+
+    private final Path file;
+    private final ObjectMapper om;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private int unsaved;
+
+    public NotionPageIndex(
+            ObjectMapper om,
+            @Value("${notion.pageIndexFile:.cache/notion-page-index.json}") String file
+    ) {
+        this.om = om;
+        this.file = Path.of(file);
+        load();
+    }
+
+    public Optional<Entry> get(String naturalKey) {
+        return Optional.ofNullable(entries.get(naturalKey));
+    }
+
+    public void put(String naturalKey, Entry entry) {
+        boolean created = entries.put(naturalKey, entry) == null;
+        boolean flush;
+        synchronized (this) {
+            flush = ++unsaved >= FLUSH_EVERY || created;
+        }
+        if (flush) flush();
+    }
+
+    @PreDestroy
+    public synchronized void flush() {
+        if (unsaved == 0) return;
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent() == null ? Path.of(".") : file.getParent(), "notion-index", ".tmp");
+            om.writeValue(tmp.toFile(), new HashMap<>(entries));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            unsaved = 0;
+        } catch (IOException e) {
+            System.out.println("Could not persist Notion page index: " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) return;
+        try {
+            entries.putAll(om.readValue(file.toFile(), new TypeReference<Map<String, Entry>>() {}));
+        } catch (IOException e) {
+            System.out.println("Could not read Notion page index, starting empty: " + e.getMessage());
+        }
+    }
+}
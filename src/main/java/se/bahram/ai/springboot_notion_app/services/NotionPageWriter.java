@@ -0,0 +1,181 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.stream.Stream;
+
+/**
+ * Asynchronous, rate-limited writer for Notion pages.
+ * Requests are queued and dispatched at most {@code notion.requestsPerSecond} per second
+ * (Notion allows ~3 on average); 429s are retried after Retry-After.
+ * 502/503/504 are retried only for idempotent calls (PATCH, queries): a gateway error on a
+ * page create may come after Notion already created the page, so the create fails instead.
+ * Each submission completes its own future with the Notion response body.
+ */
+@Service
+public class NotionPageWriter {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {};
+
+    /** One queued call. */
+    private record Job(HttpMethod method, String path, Map<String, Object> body,
+                       CompletableFuture<Map<String, Object>> result, int attempt) {
+        Job retry() {
+            return new Job(method, path, body, result, attempt + 1);
+        }
+
+        /** Safe to send again after an unknown outcome; only POST /pages creates something. */
+        boolean idempotent() {
+            return method != HttpMethod.POST || path.endsWith("/query");
+        }
+    }
+
+    private final RestTemplate rest;
+    private final long intervalNanos;
+    private final int maxRetries;
+    private final LinkedBlockingDeque<Job> queue = new LinkedBlockingDeque<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread dispatcher;
+
+    // written by senders on 429, read by the dispatcher
+    private volatile long pausedUntilNanos;
+
+    public NotionPageWriter(
+            RestTemplateBuilder builder,
+            GzipDecompressingInterceptor gzip,
+            @Qualifier("notionRequestFactory") ClientHttpRequestFactory requestFactory,
+            @Value("${notion.token}") String token,
+            @Value("${notion.apiVersion}") String apiVersion,
+            @Value("${notion.requestsPerSecond:3}") double requestsPerSecond,
+            @Value("${notion.maxRetries:5}") int maxRetries
+    ) {
+        this.intervalNanos = (long) (1_000_000_000L / Math.max(0.1, requestsPerSecond));
+        this.maxRetries = maxRetries;
+        this.rest = builder
+                .rootUri("https://api.notion.com/v1")
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors((request, body, execution) -> {
+                    HttpHeaders h = request.getHeaders();
+                    h.setContentType(MediaType.APPLICATION_JSON);
+                    h.setBearerAuth(token);
+                    h.set("Notion-Version", apiVersion);
+                    return execution.execute(request, body);
+                })
+                .additionalInterceptors(gzip)
+                .build();
+        this.dispatcher = Thread.ofVirtual().name("notion-writer").start(this::dispatch);
+    }
+
+    /** Queues a POST /pages with the given request body. */
+    public CompletableFuture<Map<String, Object>> createPage(Map<String, Object> pageRequest) {
+        return submit(HttpMethod.POST, "/pages", pageRequest);
+    }
+
+    /** Queues all page creations; futures are returned in the same order as the input. */
+    public List<CompletableFuture<Map<String, Object>>> createPages(Stream<Map<String, Object>> pageRequests) {
+        return pageRequests.map(this::createPage).toList();
+    }
+
+    /** Queues a PATCH /pages/{id}, e.g. a property update. */
+    public CompletableFuture<Map<String, Object>> updatePage(String pageId, Map<String, Object> patch) {
+        return submit(HttpMethod.PATCH, "/pages/" + pageId, patch);
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.interrupt();
+        senders.shutdown();
+        queue.forEach(job -> job.result().cancel(false));
+    }
+
+    /**
+     * Queues any Notion API call (e.g. a database query) so reads share the same rate budget as writes.
+     * @param path relative to https://api.notion.com/v1
+     */
+    public CompletableFuture<Map<String, Object>> submit(HttpMethod method, String path, Map<String, Object> body) {
+        CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        queue.add(new Job(method, path, body, result, 0));
+        return result;
+    }
+
+    private void dispatch() {
+        long nextSlot = System.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Job job = queue.take();
+                long now = System.nanoTime();
+                long wait = Math.max(nextSlot, pausedUntilNanos) - now;
+                if (wait > 0) {
+                    Thread.sleep(Duration.ofNanos(wait));
+                }
+                nextSlot = Math.max(System.nanoTime(), nextSlot) + intervalNanos;
+                senders.submit(() -> send(job));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(Job job) {
+        try {
+            ResponseEntity<Map<String, Object>> resp = rest.exchange(job.path(), job.method(),
+                    new HttpEntity<>(job.body()), JSON_OBJECT);
+            job.result().complete(resp.getBody());
+        } catch (HttpStatusCodeException e) {
+            int status = e.getStatusCode().value();
+            // Notion rejects a 429 before doing anything; a 5xx may come after the write happened
+            boolean retryable = status == 429
+                    || (job.idempotent() && (status == 502 || status == 503 || status == 504));
+            if (retryable && job.attempt() < maxRetries) {
+                pause(retryAfterSeconds(e, job.attempt()));
+                queue.addFirst(job.retry());
+            } else {
+                job.result().completeExceptionally(e);
+            }
+        } catch (RuntimeException e) {
+            job.result().completeExceptionally(e);
+        }
+    }
+
+    private void pause(long seconds) {
+        long until = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        if (until > pausedUntilNanos) pausedUntilNanos = until;
+    }
+
+    private static long retryAfterSeconds(HttpStatusCodeException e, int attempt) {
+        HttpHeaders headers = e.getResponseHeaders();
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                return Math.max(1, Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException ignored) {
+                // fall through to exponential backoff
+            }
+        }
+        return 1L << Math.min(attempt, 5);
+    }
+}
@@ -1,10 +1,13 @@
 package se.bahram.ai.springboot_notion_app.services;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -13,10 +16,25 @@ import java.util.Map;
 @Service
 public class NotionProbeService {
 
-    private final RestTemplate rt = new RestTemplate();
+    private final RestTemplate rt;
     @Value("${notion.token}") String token;
     @Value("${notion.apiVersion}") String apiVersion;
 
+    public NotionProbeService(
+            RestTemplateBuilder builder,
+            GzipDecompressingInterceptor gzip,
+            @Qualifier("notionRequestFactory") ClientHttpRequestFactory requestFactory
+    ) {
+        this.rt = builder
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors(gzip)
+                .build();
+    }
+
+    /**
+     * Raw database definition, one API call per invocation.
+     * Writers should use {@link NotionSchemaCache#getSchemaAsync} instead.
+     */
     public Map getDb(String id) {
         HttpHeaders h = new HttpHeaders();
         h.setBearerAuth(token);
@@ -24,8 +42,8 @@ public class NotionProbeService {
         HttpEntity<Void> e = new HttpEntity<>(h);
 
         ResponseEntity<Map> resp = rt.exchange(
-                "https://api.notion.com/v1/databases/" + id,
-                HttpMethod.GET, e, Map.class);
+                "https://api.notion.com/v1/databases/{id}",
+                HttpMethod.GET, e, Map.class, id);
 
         return resp.getBody();
     }
@@ -0,0 +1,129 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import se.bahram.ai.springboot_notion_app.domain.NotionProperty;
+import se.bahram.ai.springboot_notion_app.domain.NotionSchema;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory cache of typed Notion database schemas with a TTL.
+ * Once an entry is past {@code refreshAhead} of its TTL, callers still get the cached
+ * schema while a background reload runs, so writers never wait on a schema round trip.
+ * Loads go through the {@link NotionPageWriter} queue, so they share the Notion rate budget,
+ * and concurrent loads of the same database are coalesced.
+ */
+@Service
+public class NotionSchemaCache {
+
+    private record Entry(NotionSchema schema, long loadedAtMillis, AtomicBoolean refreshing) {}
+
+    private final NotionPageWriter pageWriter;
+    private final long ttlMillis;
+    private final long refreshAfterMillis;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final SingleFlight<String, Entry> loads;
+
+    @Autowired
+    public NotionSchemaCache(
+            NotionPageWriter pageWriter,
+            MeterRegistry meters,
+            @Value("${notion.schemaCache.ttl:10m}") Duration ttl,
+            @Value("${notion.schemaCache.refreshAhead:0.8}") double refreshAhead
+    ) {
+        this(pageWriter, meters, ttl, refreshAhead, Clock.systemUTC());
+    }
+
+    NotionSchemaCache(NotionPageWriter pageWriter, MeterRegistry meters, Duration ttl, double refreshAhead, Clock clock) {
+        this.pageWriter = pageWriter;
+        this.ttlMillis = ttl.toMillis();
+        this.refreshAfterMillis = (long) (ttlMillis * Math.min(1.0, Math.max(0.0, refreshAhead)));
+        this.clock = clock;
+        this.loads = new SingleFlight<>("notion-schema", meters);
+    }
+
+    /** Blocking form of {@link #getSchemaAsync}; only waits on a cold or expired entry. */
+    public NotionSchema getSchema(String databaseId) {
+        try {
+            return getSchemaAsync(databaseId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    public CompletableFuture<NotionSchema> getSchemaAsync(String databaseId) {
+        long now = clock.millis();
+        Entry entry = entries.get(databaseId);
+
+        if (entry == null || now - entry.loadedAtMillis() >= ttlMillis) {
+            return load(databaseId).thenApply(Entry::schema);
+        }
+        if (now - entry.loadedAtMillis() >= refreshAfterMillis && entry.refreshing().compareAndSet(false, true)) {
+            load(databaseId).exceptionally(e -> {
+                // Keep serving the cached schema until it expires
+                entry.refreshing().set(false);
+                System.out.println("Notion schema refresh failed: " + e.getMessage());
+                return null;
+            });
+        }
+        return CompletableFuture.completedFuture(entry.schema());
+    }
+
+    public void invalidate(String databaseId) {
+        entries.remove(databaseId);
+    }
+
+    private CompletableFuture<Entry> load(String databaseId) {
+        return loads.executeAsync(databaseId, () -> pageWriter
+                .submit(HttpMethod.GET, "/databases/" + databaseId, null)
+                .thenApply(db -> {
+                    Entry entry = new Entry(parse(db), clock.millis(), new AtomicBoolean(false));
+                    entries.put(databaseId, entry);
+                    return entry;
+                }));
+    }
+
+    @SuppressWarnings("unchecked")
+    static NotionSchema parse(Map<String, Object> db) {
+        String id = (String) db.get("id");
+        StringBuilder title = new StringBuilder();
+        if (db.get("title") instanceof List<?> parts) {
+            for (Object part : parts) {
+                if (part instanceof Map<?, ?> p && p.get("plain_text") instanceof String t) title.append(t);
+            }
+        }
+
+        Map<String, NotionProperty> properties = new LinkedHashMap<>();
+        Map<String, Object> raw = (Map<String, Object>) db.getOrDefault("properties", Map.of());
+        raw.forEach((name, value) -> {
+            Map<String, Object> p = (Map<String, Object>) value;
+            String type = (String) p.get("type");
+            List<String> options = new ArrayList<>();
+            if (p.get(type) instanceof Map<?, ?> config && config.get("options") instanceof List<?> opts) {
+                for (Object o : opts) {
+                    if (o instanceof Map<?, ?> option && option.get("name") instanceof String optionName) {
+                        options.add(optionName);
+                    }
+                }
+            }
+            properties.put(name, new NotionProperty((String) p.get("id"), name, type, List.copyOf(options)));
+        });
+        return new NotionSchema(id, title.toString(), Collections.unmodifiableMap(properties));
+    }
+}
@@ -0,0 +1,134 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Idempotent page writes: creates a page only for an unseen natural key, otherwise
+ * PATCHes just the properties whose content changed since we last wrote them, and clears
+ * the ones the request no longer sets. Upserts for the same key run one after another,
+ * so concurrent callers cannot both create a page for it.
+ */
+@Service
+public class NotionUpsertService {
+
+    public enum Action { CREATED, UPDATED, UNCHANGED }
+
+    public record Result(String pageId, Action action, Set<String> changedProperties) {}
+
+    private final NotionPageWriter pageWriter;
+    private final NotionPageIndex index;
+    // Sorted map keys, so a property hashes the same in every JVM run
+    private final ObjectMapper canonical;
+
+    // last upsert per natural key; the next one for that key waits for it
+    private final Map<String, CompletableFuture<Result>> inFlight = new ConcurrentHashMap<>();
+
+    public NotionUpsertService(NotionPageWriter pageWriter, NotionPageIndex index, ObjectMapper om) {
+        this.pageWriter = pageWriter;
+        this.index = index;
+        this.canonical = om.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    }
+
+    /**
+     * @param naturalKey stable identity, e.g. "book:" + isbn or "repo:" + owner/repo
+     * @param createRequest full POST /pages body; its "properties" are what gets diffed
+     */
+    public CompletableFuture<Result> upsert(String naturalKey, Map<String, Object> createRequest) {
+        CompletableFuture<Result> mine = new CompletableFuture<>();
+        CompletableFuture<Result> previous = inFlight.put(naturalKey, mine);
+        CompletableFuture<?> turn = previous == null
+                ? CompletableFuture.completedFuture(null)
+                : previous.handle((r, e) -> null);
+
+        turn.thenCompose(v -> write(naturalKey, createRequest)).whenComplete((result, e) -> {
+            inFlight.remove(naturalKey, mine);
+            if (e == null) mine.complete(result);
+            else mine.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+        });
+        return mine;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Result> write(String naturalKey, Map<String, Object> createRequest) {
+        Map<String, Object> properties = (Map<String, Object>) createRequest.getOrDefault("properties", Map.of());
+        Map<String, String> hashes = new LinkedHashMap<>();
+        Map<String, String> types = new LinkedHashMap<>();
+        properties.forEach((name, value) -> {
+            hashes.put(name, hash(value));
+            String type = typeOf(value);
+            if (type != null) types.put(name, type);
+        });
+
+        var existing = index.get(naturalKey);
+        if (existing.isEmpty()) {
+            return pageWriter.createPage(createRequest).thenApply(page -> {
+                String pageId = String.valueOf(page.get("id"));
+                index.put(naturalKey, new NotionPageIndex.Entry(pageId, hashes, types));
+                return new Result(pageId, Action.CREATED, hashes.keySet());
+            });
+        }
+
+        NotionPageIndex.Entry entry = existing.get();
+        Map<String, Object> changed = new LinkedHashMap<>();
+        hashes.forEach((name, hash) -> {
+            if (!hash.equals(entry.propertyHashes().get(name))) changed.put(name, properties.get(name));
+        });
+        List<String> removed = entry.propertyHashes().keySet().stream().filter(n -> !hashes.containsKey(n)).toList();
+        for (String name : removed) {
+            Object empty = emptyValue(entry.propertyTypes().get(name));
+            if (empty != null) changed.put(name, empty);
+        }
+        if (changed.isEmpty()) {
+            if (!removed.isEmpty()) index.put(naturalKey, new NotionPageIndex.Entry(entry.pageId(), hashes, types));
+            return CompletableFuture.completedFuture(new Result(entry.pageId(), Action.UNCHANGED, Set.of()));
+        }
+
+        return pageWriter.updatePage(entry.pageId(), Map.of("properties", changed)).thenApply(page -> {
+            index.put(naturalKey, new NotionPageIndex.Entry(entry.pageId(), hashes, types));
+            return new Result(entry.pageId(), Action.UPDATED, changed.keySet());
+        });
+    }
+
+    private String hash(Object value) {
+        try {
+            return Hashes.sha256Hex(canonical.writeValueAsString(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Property value is not serializable", e);
+        }
+    }
+
+    /** The Notion type of a page property value, e.g. "rich_text" for {"rich_text": [...]}. */
+    @SuppressWarnings("unchecked")
+    private static String typeOf(Object value) {
+        if (!(value instanceof Map<?, ?> map)) return null;
+        if (map.get("type") instanceof String type) return type;
+        return ((Map<String, Object>) map).keySet().stream().filter(k -> !k.equals("id")).findFirst().orElse(null);
+    }
+
+    /** Value that clears a property of the given type, or null if it cannot be cleared. */
+    private static Map<String, Object> emptyValue(String type) {
+        if (type == null) return null;
+        Map<String, Object> empty = new HashMap<>();
+        switch (type) {
+            case "title", "rich_text", "multi_select", "people", "relation", "files" -> empty.put(type, List.of());
+            case "number", "select", "date", "url", "email", "phone_number" -> empty.put(type, null);
+            case "checkbox" -> empty.put(type, false);
+            default -> {
+                return null;
+            }
+        }
+        return empty;
+    }
+}
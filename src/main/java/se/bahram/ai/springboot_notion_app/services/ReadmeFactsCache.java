@@ -0,0 +1,68 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import se.bahram.ai.springboot_notion_app.domain.ReadmeFacts;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent cache of extracted {@link ReadmeFacts}.
+ * Keyed by owner/repo, a hash of the README text and the prompt/model version,
+ * so an unchanged README never goes back to the LLM. At most
+ * {@code pipeline.readmeFactsCacheMaxFiles} entries are kept on disk and
+ * {@code pipeline.readmeFactsCacheMemoryEntries} in memory, least recently used dropped first.
+ */
+@Component
+public class ReadmeFactsCache {
+
+    private final JsonFileStore disk;
+    private final ExpiringLruCache<String, ReadmeFacts> memory;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ReadmeFactsCache(
+            ObjectMapper om,
+            @Value("${pipeline.readmeFactsCacheDir:.cache/readme-facts}") String dir,
+            @Value("${pipeline.readmeFactsCacheMemoryEntries:2000}") int memoryEntries,
+            @Value("${pipeline.readmeFactsCacheMaxFiles:10000}") int maxFiles
+    ) {
+        this.disk = new JsonFileStore(om, Path.of(dir), maxFiles);
+        this.memory = new ExpiringLruCache<>(memoryEntries);
+    }
+
+    public static String key(String owner, String repo, String readme, String promptVersion) {
+        return owner + "/" + repo + "|" + Hashes.sha256Hex(readme == null ? "" : readme) + "|" + promptVersion;
+    }
+
+    public Optional<ReadmeFacts> get(String key) {
+        ReadmeFacts facts = memory.get(key);
+        if (facts == null) {
+            facts = disk.read(key, ReadmeFacts.class);
+            if (facts != null) memory.put(key, facts);
+        }
+        (facts != null ? hits : misses).incrementAndGet();
+        return Optional.ofNullable(facts);
+    }
+
+    public void put(String key, ReadmeFacts facts) {
+        memory.put(key, facts);
+        try {
+            disk.write(key, facts);
+        } catch (IOException e) {
+            System.out.println("Could not persist ReadmeFacts cache entry: " + e.getMessage());
+        }
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+}
@@ -1,35 +1,180 @@
 package se.bahram.ai.springboot_notion_app.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.ai.chat.client.ChatClient; // adjust if your version differs
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import se.bahram.ai.springboot_notion_app.domain.ReadmeFacts;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReadmeFactsService {
 
+    private static final String SYSTEM_PROMPT = "Extract structured facts from README and return strict JSON only.";
+
+    private static final String USER_PROMPT = """
+            You are an extraction agent. Read the README.md below and return ONLY a JSON object with:
+            {
+              "oneLiner": string|null,
+              "keyFeatures": string[]|[],
+              "primaryUseCases": string[]|[],
+              "installMethods": string[]|[],
+              "limitations": string[]|[],
+              "targetAudience": string|null
+            }
+            - Use ONLY info present in the README.
+            - Do not add commentary. No markdown. Return valid JSON only.
+
+            <README>
+            %s
+            </README>
+            """;
+
+    // Same as USER_PROMPT, but only for the fields the local extractor could not fill
+    private static final String FIELDS_PROMPT = """
+            You are an extraction agent. Read the README.md below and return ONLY a JSON object with:
+            {
+            %s
+            }
+            - Use ONLY info present in the README.
+            - Do not add commentary. No markdown. Return valid JSON only.
+
+            <README>
+            %s
+            </README>
+            """;
+
+    private static final Map<String, String> FIELD_TYPES = Map.of(
+            MarkdownReadmeExtractor.ONE_LINER, "string|null",
+            MarkdownReadmeExtractor.KEY_FEATURES, "string[]|[]",
+            MarkdownReadmeExtractor.PRIMARY_USE_CASES, "string[]|[]",
+            MarkdownReadmeExtractor.INSTALL_METHODS, "string[]|[]",
+            MarkdownReadmeExtractor.LIMITATIONS, "string[]|[]",
+            MarkdownReadmeExtractor.TARGET_AUDIENCE, "string|null");
+
+    private static final String BATCH_PROMPT = """
+            You are an extraction agent. For EACH README below, identified by its repo attribute,
+            return ONLY a JSON array with one object per README:
+            [
+              {
+                "repo": "owner/repo",
+                "oneLiner": string|null,
+                "keyFeatures": string[]|[],
+                "primaryUseCases": string[]|[],
+                "installMethods": string[]|[],
+                "limitations": string[]|[],
+                "targetAudience": string|null
+              }
+            ]
+            - Use ONLY info present in each README; never mix facts between repos.
+            - Do not add commentary. No markdown. Return valid JSON only.
+
+            %s
+            """;
+
     private final RestTemplate rest;
     private final ChatClient chat;
     private final ObjectMapper om;
+    private final ReadmeFactsCache cache;
+    private final ReadmePreprocessor preprocessor;
+    private final MarkdownReadmeExtractor localExtractor;
+    private final boolean localExtraction;
+    private final double localConfidence;
+    private final Set<String> localRequired;
+    private final boolean mapReduce;
+    private final int chunkTokens;
+    private final int batchTokenBudget;
+    private final int batchRepoTokens;
+    private final boolean streaming;
+    private final int streamRetries;
+    private final String promptVersion;
+    private final String batchPromptVersion;
+    private final MeterRegistry meters;
+    // Concurrent callers for the same repo share one README download and one model call
+    private final SingleFlight<String, String> readmeFlights;
+    private final SingleFlight<String, ReadmeFacts> extractFlights;
 
     public ReadmeFactsService(
             RestTemplateBuilder builder,
-            ChatClient chat,
+            @Lazy ChatClient chat, // built on first model call; runs served by the local extractor never need it
             ObjectMapper om,
-            @Value("${github.token}") String token
+            ConditionalRequestCacheInterceptor cacheInterceptor,
+            GitHubRateLimiter rateLimiter,
+            GzipDecompressingInterceptor gzip,
+            @Qualifier("githubRequestFactory") ClientHttpRequestFactory requestFactory,
+            ReadmeFactsCache cache,
+            ReadmePreprocessor preprocessor,
+            MarkdownReadmeExtractor localExtractor,
+            MeterRegistry meters,
+            @Value("${github.token}") String token,
+            @Value("${spring.ai.openai.chat.options.model:default}") String model,
+            @Value("${pipeline.readme.mapReduce:false}") boolean mapReduce,
+            @Value("${pipeline.readme.chunkTokens:3000}") int chunkTokens,
+            @Value("${pipeline.readme.batchTokenBudget:12000}") int batchTokenBudget,
+            @Value("${pipeline.readme.batchRepoTokens:1500}") int batchRepoTokens,
+            @Value("${pipeline.readme.streaming:false}") boolean streaming,
+            @Value("${pipeline.readme.streamRetries:1}") int streamRetries,
+            @Value("${pipeline.readme.local.enabled:true}") boolean localExtraction,
+            @Value("${pipeline.readme.local.confidence:0.8}") double localConfidence,
+            @Value("${pipeline.readme.local.required:oneLiner,keyFeatures,primaryUseCases,installMethods,limitations}") List<String> localRequired
     ) {
         this.chat = chat;
         this.om = om;
+        this.cache = cache;
+        this.preprocessor = preprocessor;
+        this.localExtractor = localExtractor;
+        this.localExtraction = localExtraction;
+        this.localConfidence = localConfidence;
+        this.localRequired = Set.copyOf(localRequired);
+        this.meters = meters;
+        this.readmeFlights = new SingleFlight<>("readme-fetch", meters);
+        this.extractFlights = new SingleFlight<>("readme-extract", meters);
+        this.mapReduce = mapReduce;
+        this.chunkTokens = chunkTokens;
+        this.batchTokenBudget = batchTokenBudget;
+        this.batchRepoTokens = batchRepoTokens;
+        this.streaming = streaming;
+        this.streamRetries = Math.max(0, streamRetries);
+        // Editing the prompt, the model or the README budget invalidates cached extractions
+        this.promptVersion = model + ":" + Hashes.sha256Hex(SYSTEM_PROMPT + USER_PROMPT + FIELDS_PROMPT
+                + preprocessor.tokenBudget() + mapReduce + chunkTokens
+                + localExtraction + localConfidence + new TreeSet<>(localRequired)).substring(0, 12);
+        // Batch answers see a shorter README and another prompt, so they are cached apart from single extractions
+        this.batchPromptVersion = promptVersion + ":batch-"
+                + Hashes.sha256Hex(BATCH_PROMPT + batchRepoTokens).substring(0, 12);
         this.rest = builder
                 .rootUri("https://api.github.com")
-                .connectTimeout(Duration.ofSeconds(10))
-                .readTimeout(Duration.ofSeconds(20))
+                .requestFactory(() -> requestFactory)
                 .additionalInterceptors((req, body, ex) -> {
                     HttpHeaders h = req.getHeaders();
                     h.set(HttpHeaders.USER_AGENT, "TrendAgent/1.0");
@@ -40,36 +185,260 @@ public class ReadmeFactsService {
                     }
                     return ex.execute(req, body);
                 })
+                .additionalInterceptors(gzip, cacheInterceptor, rateLimiter)
                 .build();
     }
 
     public ReadmeFacts extract(String owner, String repo) {
-        String readme = fetchReadmeRaw(owner, repo);
-        String userPrompt = """
-            You are an extraction agent. Read the README.md below and return ONLY a JSON object with:
-            {
-              "oneLiner": string|null,
-              "keyFeatures": string[]|[],
-              "primaryUseCases": string[]|[],
-              "installMethods": string[]|[],
-              "limitations": string[]|[],
-              "targetAudience": string|null
+        return extract(owner, repo, fetchReadmeRaw(owner, repo));
+    }
+
+    /**
+     * Runs the extraction on an already fetched README.
+     * Lets callers fetch from GitHub and call the model under separate limits.
+     * Fields the {@link MarkdownReadmeExtractor} fills with at least {@code local.confidence} are
+     * taken as is; the model is only asked for the rest, and not at all when every
+     * {@code local.required} field was filled locally.
+     * By default every field except {@code targetAudience}, which the local pass never fills, is required,
+     * so a well-structured README skips the model and the model otherwise fills whatever the local pass missed.
+     * Dropping more fields from {@code local.required} saves model calls, but those fields stay
+     * empty whenever the README alone did not yield them.
+     */
+    public ReadmeFacts extract(String owner, String repo, String readme) {
+        String key = cacheKey(owner + "/" + repo, readme);
+        Optional<ReadmeFacts> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        MarkdownReadmeExtractor.Extraction local = extractLocally(readme);
+        if (needsModel(local)) {
+            return extractMissing(key, readme, local);
+        }
+        cache.put(key, local.facts());
+        return local.facts();
+    }
+
+    /**
+     * Asks the model for the fields the local pass left open and caches the merged result.
+     * Keyed by cache key, so identical concurrent extractions make a single call.
+     */
+    private ReadmeFacts extractMissing(String key, String readme, MarkdownReadmeExtractor.Extraction local) {
+        return extractFlights.execute(key, () -> {
+            ReadmeFacts facts = overlay(local, callModel(readme, missingFields(local)), localConfidence);
+            cache.put(key, facts);
+            return facts;
+        });
+    }
+
+    /**
+     * Extracts facts for several repos with as few LLM round trips as possible.
+     * READMEs are trimmed to {@code batchRepoTokens} each and packed into prompts of up to
+     * {@code batchTokenBudget}; any repo missing from (or unparseable in) the batch answer
+     * is re-extracted on its own. Repos that still fail are left out of the result.
+     * Batch answers are cached under their own version (batch prompt + {@code batchRepoTokens}),
+     * so {@link #extract} never serves an answer that came from a trimmed README.
+     * @param readmes raw README per "owner/repo"
+     * @return facts per "owner/repo"
+     */
+    public Map<String, ReadmeFacts> extractBatch(Map<String, String> readmes) {
+        Map<String, ReadmeFacts> results = new LinkedHashMap<>();
+        Map<String, String> pending = new LinkedHashMap<>();
+        Map<String, MarkdownReadmeExtractor.Extraction> locals = new HashMap<>();
+        // A full single extraction beats a batch answer for the same README
+        readmes.forEach((fullName, readme) -> cache.get(cacheKey(fullName, readme))
+                .or(() -> cache.get(batchCacheKey(fullName, readme)))
+                .ifPresentOrElse(
+                        facts -> results.put(fullName, facts),
+                        () -> {
+                            MarkdownReadmeExtractor.Extraction local = extractLocally(readme);
+                            if (needsModel(local)) {
+                                locals.put(fullName, local);
+                                pending.put(fullName, preprocessor.fit(readme, batchRepoTokens));
+                            } else {
+                                cache.put(cacheKey(fullName, readme), local.facts());
+                                results.put(fullName, local.facts());
+                            }
+                        }));
+
+        for (Map<String, String> batch : packBatches(pending)) {
+            Map<String, ReadmeFacts> answered = batch.size() == 1 ? Map.of() : callModelBatch(batch);
+            for (String fullName : batch.keySet()) {
+                String readme = readmes.get(fullName);
+                MarkdownReadmeExtractor.Extraction local = locals.get(fullName);
+                ReadmeFacts facts = answered.get(fullName);
+                String key = cacheKey(fullName, readme);
+                try {
+                    if (facts == null) {
+                        facts = extractMissing(key, readme, local);
+                    } else {
+                        facts = overlay(local, facts, localConfidence);
+                        cache.put(batchCacheKey(fullName, readme), facts);
+                    }
+                    results.put(fullName, facts);
+                } catch (RuntimeException e) {
+                    System.out.println("README extraction failed for " + fullName + ": " + e.getMessage());
+                }
             }
-            - Use ONLY info present in the README.
-            - Do not add commentary. No markdown. Return valid JSON only.
+        }
+        return results;
+    }
 
-            <README>
-            %s
-            </README>
-            """.formatted(readme == null ? "" : readme);
+    private List<Map<String, String>> packBatches(Map<String, String> fitted) {
+        List<Map<String, String>> batches = new ArrayList<>();
+        Map<String, String> current = new LinkedHashMap<>();
+        int used = 0;
+        for (Map.Entry<String, String> e : fitted.entrySet()) {
+            int cost = ReadmePreprocessor.estimateTokens(e.getValue());
+            if (!current.isEmpty() && used + cost > batchTokenBudget) {
+                batches.add(current);
+                current = new LinkedHashMap<>();
+                used = 0;
+            }
+            current.put(e.getKey(), e.getValue());
+            used += cost;
+        }
+        if (!current.isEmpty()) batches.add(current);
+        return batches;
+    }
+
+    /** One round trip for the whole batch; returns whatever parsed, keyed by "owner/repo". */
+    private Map<String, ReadmeFacts> callModelBatch(Map<String, String> batch) {
+        StringBuilder docs = new StringBuilder();
+        batch.forEach((fullName, readme) -> docs
+                .append("<README repo=\"").append(fullName).append("\">\n")
+                .append(readme)
+                .append("\n</README>\n"));
+
+        Map<String, ReadmeFacts> parsed = new HashMap<>();
+        try {
+            String json = complete(BATCH_PROMPT.formatted(docs), "batch");
+
+            JsonNode arr = om.readTree(json);
+            if (arr == null || !arr.isArray()) return parsed;
+            for (JsonNode n : arr) {
+                String fullName = n.path("repo").asText(null);
+                if (fullName == null || !batch.containsKey(fullName)) continue;
+                try {
+                    parsed.put(fullName, om.treeToValue(n, ReadmeFacts.class));
+                } catch (Exception e) {
+                    // Skip this element; the repo is retried on its own
+                }
+            }
+        } catch (Exception e) {
+            // Whole answer unusable: every repo in the batch falls back to single extraction
+            System.out.println("Batch README extraction failed: " + e.getMessage());
+        }
+        return parsed;
+    }
+
+    private String cacheKey(String fullName, String readme) {
+        return cacheKey(fullName, readme, promptVersion);
+    }
+
+    private String batchCacheKey(String fullName, String readme) {
+        return cacheKey(fullName, readme, batchPromptVersion);
+    }
+
+    private static String cacheKey(String fullName, String readme, String version) {
+        int slash = fullName.indexOf('/');
+        return ReadmeFactsCache.key(fullName.substring(0, slash), fullName.substring(slash + 1), readme, version);
+    }
+
+    /** Local pass; with local extraction off, nothing counts as filled. */
+    private MarkdownReadmeExtractor.Extraction extractLocally(String readme) {
+        return localExtraction
+                ? localExtractor.extract(readme)
+                : new MarkdownReadmeExtractor.Extraction(new ReadmeFacts(null, null, null, null, null, null), Map.of());
+    }
+
+    private boolean needsModel(MarkdownReadmeExtractor.Extraction local) {
+        boolean needed = localRequired.stream().anyMatch(f -> local.confidence(f) < localConfidence);
+        Counter.builder("readme.extraction")
+                .description("README extractions by how much of the work the model did")
+                .tag("path", !needed ? "local" : missingFields(local).size() < MarkdownReadmeExtractor.FIELDS.size() ? "hybrid" : "llm")
+                .register(meters)
+                .increment();
+        return needed;
+    }
+
+    private List<String> missingFields(MarkdownReadmeExtractor.Extraction local) {
+        return MarkdownReadmeExtractor.FIELDS.stream()
+                .filter(f -> local.confidence(f) < localConfidence)
+                .toList();
+    }
+
+    /** Confident local fields win; everything else comes from the model. */
+    static ReadmeFacts overlay(MarkdownReadmeExtractor.Extraction local, ReadmeFacts model, double threshold) {
+        ReadmeFacts l = local.facts();
+        return new ReadmeFacts(
+                local.confidence(MarkdownReadmeExtractor.ONE_LINER) >= threshold ? l.oneLiner() : model.oneLiner(),
+                local.confidence(MarkdownReadmeExtractor.KEY_FEATURES) >= threshold ? l.keyFeatures() : model.keyFeatures(),
+                local.confidence(MarkdownReadmeExtractor.PRIMARY_USE_CASES) >= threshold ? l.primaryUseCases() : model.primaryUseCases(),
+                local.confidence(MarkdownReadmeExtractor.INSTALL_METHODS) >= threshold ? l.installMethods() : model.installMethods(),
+                local.confidence(MarkdownReadmeExtractor.LIMITATIONS) >= threshold ? l.limitations() : model.limitations(),
+                local.confidence(MarkdownReadmeExtractor.TARGET_AUDIENCE) >= threshold ? l.targetAudience() : model.targetAudience());
+    }
+
+    private ReadmeFacts callModel(String readme, List<String> fields) {
+        if (mapReduce && ReadmePreprocessor.estimateTokens(readme) > preprocessor.tokenBudget()) {
+            List<String> chunks = preprocessor.chunks(readme, chunkTokens);
+            if (chunks.size() > 1) {
+                return extractChunks(chunks, fields);
+            }
+        }
+        return callModelOnText(preprocessor.fit(readme), fields);
+    }
+
+    /** Map-reduce: extract each chunk in parallel, then merge into one result. */
+    private ReadmeFacts extractChunks(List<String> chunks, List<String> fields) {
+        List<ReadmeFacts> partials;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ReadmeFacts>> futures = chunks.stream()
+                    .map(chunk -> executor.submit(() -> callModelOnText(chunk, fields)))
+                    .toList();
+            partials = new ArrayList<>(futures.size());
+            for (Future<ReadmeFacts> f : futures) {
+                partials.add(f.get());
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during README map-reduce", e);
+        }
+        return merge(partials);
+    }
+
+    static ReadmeFacts merge(List<ReadmeFacts> partials) {
+        String oneLiner = null;
+        String targetAudience = null;
+        Set<String> features = new LinkedHashSet<>();
+        Set<String> useCases = new LinkedHashSet<>();
+        Set<String> install = new LinkedHashSet<>();
+        Set<String> limitations = new LinkedHashSet<>();
+
+        // Chunks are in README order, so the first non-null one-liner comes from the intro
+        for (ReadmeFacts p : partials) {
+            if (oneLiner == null) oneLiner = p.oneLiner();
+            if (targetAudience == null) targetAudience = p.targetAudience();
+            if (p.keyFeatures() != null) features.addAll(p.keyFeatures());
+            if (p.primaryUseCases() != null) useCases.addAll(p.primaryUseCases());
+            if (p.installMethods() != null) install.addAll(p.installMethods());
+            if (p.limitations() != null) limitations.addAll(p.limitations());
+        }
+        return new ReadmeFacts(oneLiner, List.copyOf(features), List.copyOf(useCases),
+                List.copyOf(install), List.copyOf(limitations), targetAudience);
+    }
+
+    private ReadmeFacts callModelOnText(String readme, List<String> fields) {
+        String userPrompt = userPrompt(readme == null ? "" : readme, fields);
+        if (streaming) {
+            return streamModelOnText(userPrompt);
+        }
 
         // Call your configured model (e.g., gpt-4o) via Spring AI
-        String json = chat
-                .prompt()
-                .system("Extract structured facts from README and return strict JSON only.")
-                .user(userPrompt)
-                .call()
-                .content();
+        String json = complete(userPrompt, "single");
 
         try {
             return om.readValue(json, ReadmeFacts.class);
@@ -79,7 +448,128 @@ public class ReadmeFactsService {
         }
     }
 
-    private String fetchReadmeRaw(String owner, String repo) {
+    private static String userPrompt(String readme, List<String> fields) {
+        if (fields.size() == MarkdownReadmeExtractor.FIELDS.size()) {
+            return USER_PROMPT.formatted(readme);
+        }
+        String schema = fields.stream()
+                .map(f -> "  \"" + f + "\": " + FIELD_TYPES.get(f))
+                .collect(Collectors.joining(",\n"));
+        return FIELDS_PROMPT.formatted(schema, readme);
+    }
+
+    /**
+     * One model round trip, timed and with its token usage recorded,
+     * so a run's LLM cost can be read from {@code llm.tokens}.
+     */
+    private String complete(String userPrompt, String operation) {
+        Timer.Sample sample = Timer.start(meters);
+        String outcome = "error";
+        try {
+            ChatResponse response = chat
+                    .prompt()
+                    .system(SYSTEM_PROMPT)
+                    .user(userPrompt)
+                    .call()
+                    .chatResponse();
+            outcome = "success";
+            recordUsage(response, operation);
+            return text(response);
+        } finally {
+            sample.stop(llmTimer(operation, outcome));
+        }
+    }
+
+    /**
+     * Streaming variant of the single extraction: the answer is parsed while it arrives and the
+     * stream is cancelled as soon as it stops being valid ReadmeFacts JSON, then retried up to
+     * {@code streamRetries} times. A bad answer costs the tokens up to the error, not a full completion.
+     */
+    private ReadmeFacts streamModelOnText(String userPrompt) {
+        IOException last = null;
+        for (int attempt = 0; attempt <= streamRetries; attempt++) {
+            try {
+                return streamOnce(userPrompt);
+            } catch (IOException e) {
+                last = e;
+                Counter.builder("llm.stream.aborted")
+                        .description("Streamed answers cancelled because they stopped being valid JSON")
+                        .register(meters)
+                        .increment();
+            }
+        }
+        throw new IllegalStateException("Failed to parse ReadmeFacts JSON", last);
+    }
+
+    private ReadmeFacts streamOnce(String userPrompt) throws IOException {
+        ReadmeFactsStreamParser parser = new ReadmeFactsStreamParser(om.getFactory());
+        long start = System.nanoTime();
+        Timer.Sample sample = Timer.start(meters);
+        String outcome = "error";
+        // Closing the stream cancels the request, which is what stops a bad completion early
+        try (Stream<ChatResponse> chunks = chat
+                .prompt()
+                .system(SYSTEM_PROMPT)
+                .user(userPrompt)
+                .stream()
+                .chatResponse()
+                .toStream()) {
+            for (Iterator<ChatResponse> it = chunks.iterator(); it.hasNext(); ) {
+                ChatResponse chunk = it.next();
+                // With stream-usage on, the last chunk carries the token counts; keep reading until it
+                recordUsage(chunk, "stream");
+                boolean first = parser.fieldsCompleted() == 0;
+                parser.feed(text(chunk));
+                if (first && parser.fieldsCompleted() > 0) {
+                    Timer.builder("llm.stream.first.field")
+                            .description("Time from request to the first complete ReadmeFacts field")
+                            .register(meters)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+            ReadmeFacts facts = parser.finish();
+            outcome = "success";
+            return facts;
+        } finally {
+            sample.stop(llmTimer("stream", outcome));
+        }
+    }
+
+    private Timer llmTimer(String operation, String outcome) {
+        return Timer.builder("llm.requests")
+                .description("Latency of README extraction calls to the model")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meters);
+    }
+
+    private static String text(ChatResponse response) {
+        return response == null || response.getResult() == null ? null : response.getResult().getOutput().getText();
+    }
+
+    private void recordUsage(ChatResponse response, String operation) {
+        Usage usage = response == null ? null : response.getMetadata().getUsage();
+        if (usage == null) return;
+        countTokens(operation, "prompt", usage.getPromptTokens());
+        countTokens(operation, "completion", usage.getCompletionTokens());
+    }
+
+    private void countTokens(String operation, String type, Integer tokens) {
+        if (tokens == null || tokens <= 0) return;
+        Counter.builder("llm.tokens")
+                .description("Tokens billed for README extraction")
+                .tag("operation", operation)
+                .tag("type", type)
+                .register(meters)
+                .increment(tokens);
+    }
+
+    public String fetchReadmeRaw(String owner, String repo) {
+        return readmeFlights.execute(owner + "/" + repo, () -> downloadReadme(owner, repo));
+    }
+
+    private String downloadReadme(String owner, String repo) {
         HttpHeaders headers = new HttpHeaders();
         headers.set(HttpHeaders.ACCEPT, "application/vnd.github.raw"); // raw Markdown
         HttpEntity<Void> req = new HttpEntity<>(headers);
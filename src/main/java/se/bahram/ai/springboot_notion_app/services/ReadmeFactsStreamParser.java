@@ -0,0 +1,143 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import se.bahram.ai.springboot_notion_app.domain.ReadmeFacts;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses a streamed {@link ReadmeFacts} answer chunk by chunk on Jackson's non-blocking parser.
+ * Each top-level field is applied as soon as its value is complete, and output that stops being
+ * a ReadmeFacts-shaped JSON object fails on the chunk where it goes wrong, not at the end.
+ * Unknown fields are skipped, like {@code @JsonIgnoreProperties(ignoreUnknown = true)}.
+ */
+final class ReadmeFactsStreamParser {
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private String oneLiner;
+    private String targetAudience;
+    private final Map<String, List<String>> lists = new HashMap<>();
+
+    private boolean started;
+    private boolean done;
+    private int fieldsCompleted;
+    private String field;          // top-level field whose value is being read
+    private List<String> array;    // open string array of that field
+    private int skipDepth;         // > 0 while skipping the value of an unknown field
+
+    ReadmeFactsStreamParser(JsonFactory factory) throws IOException {
+        this.parser = factory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Feeds the next piece of model output.
+     * @return true once the root object is closed; anything fed after that is ignored
+     * @throws JsonParseException as soon as the output is not (or can no longer become) valid ReadmeFacts JSON
+     */
+    boolean feed(String chunk) throws IOException {
+        if (done || chunk == null || chunk.isEmpty()) return done;
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+        drain();
+        return done;
+    }
+
+    /** Ends the input; fails if the answer stopped before the root object was closed. */
+    ReadmeFacts finish() throws IOException {
+        if (!done) {
+            feeder.endOfInput();
+            drain();
+            if (!done) throw invalid("answer ended before the JSON object was closed");
+        }
+        return result();
+    }
+
+    /** Fields completed so far; the rest are null. */
+    ReadmeFacts result() {
+        return new ReadmeFacts(oneLiner, lists.get("keyFeatures"), lists.get("primaryUseCases"),
+                lists.get("installMethods"), lists.get("limitations"), targetAudience);
+    }
+
+    int fieldsCompleted() {
+        return fieldsCompleted;
+    }
+
+    private void drain() throws IOException {
+        JsonToken t;
+        while (!done && (t = parser.nextToken()) != null && t != JsonToken.NOT_AVAILABLE) {
+            accept(t);
+        }
+    }
+
+    private void accept(JsonToken t) throws IOException {
+        if (!started) {
+            if (t != JsonToken.START_OBJECT) throw invalid("expected a JSON object");
+            started = true;
+            return;
+        }
+        if (skipDepth > 0) {
+            if (t.isStructStart()) skipDepth++;
+            else if (t.isStructEnd() && --skipDepth == 0) completeField();
+            return;
+        }
+        if (array != null) {
+            switch (t) {
+                case VALUE_STRING -> array.add(parser.getText());
+                case END_ARRAY -> {
+                    lists.put(field, List.copyOf(array));
+                    array = null;
+                    completeField();
+                }
+                default -> throw invalid(field + " must be an array of strings");
+            }
+            return;
+        }
+        if (field == null) {
+            switch (t) {
+                case FIELD_NAME -> field = parser.currentName();
+                case END_OBJECT -> done = true;
+                default -> throw invalid("expected a field name");
+            }
+            return;
+        }
+        switch (field) {
+            case "oneLiner", "targetAudience" -> {
+                if (t != JsonToken.VALUE_STRING && t != JsonToken.VALUE_NULL) throw invalid(field + " must be a string");
+                String text = t == JsonToken.VALUE_NULL ? null : parser.getText();
+                if (field.equals("oneLiner")) oneLiner = text;
+                else targetAudience = text;
+                completeField();
+            }
+            case "keyFeatures", "primaryUseCases", "installMethods", "limitations" -> {
+                if (t == JsonToken.START_ARRAY) array = new ArrayList<>();
+                else if (t == JsonToken.VALUE_NULL) completeField();
+                else throw invalid(field + " must be an array of strings");
+            }
+            default -> {
+                if (t.isStructStart()) skipDepth = 1;
+                else completeField();
+            }
+        }
+    }
+
+    private void completeField() {
+        field = null;
+        fieldsCompleted++;
+    }
+
+    private JsonParseException invalid(String message) {
+        return new JsonParseException(parser, "Not a ReadmeFacts object: " + message);
+    }
+}
@@ -0,0 +1,178 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Shrinks a raw README before it goes into a prompt: strips badges, images,
+ * HTML comments and surplus code blocks, then keeps the most relevant sections
+ * (intro, features, install, usage) within a token budget.
+ */
+@Component
+public class ReadmePreprocessor {
+
+    /** A README section: its heading line (may be empty for the intro) and body. */
+    record Section(int index, String heading, String text, int score) {}
+
+    private static final Pattern HTML_COMMENT = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+    // [![badge](img)](link) first, then bare ![alt](img)
+    private static final Pattern LINKED_IMAGE = Pattern.compile("\\[!\\[[^\\]]*\\]\\([^)]*\\)\\]\\([^)]*\\)");
+    private static final Pattern IMAGE = Pattern.compile("!\\[[^\\]]*\\]\\([^)]*\\)");
+    private static final Pattern HTML_IMG = Pattern.compile("<img\\b[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HTML_TAG = Pattern.compile("</?[a-zA-Z][^>]*>");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n{3,}");
+
+    private final int tokenBudget;
+    private final int maxCodeBlocks;
+
+    public ReadmePreprocessor(
+            @Value("${pipeline.readme.tokenBudget:3000}") int tokenBudget,
+            @Value("${pipeline.readme.maxCodeBlocks:3}") int maxCodeBlocks
+    ) {
+        this.tokenBudget = tokenBudget;
+        this.maxCodeBlocks = maxCodeBlocks;
+    }
+
+    public int tokenBudget() {
+        return tokenBudget;
+    }
+
+    /** Rough estimate (~4 chars per token for English Markdown); good enough for budgeting. */
+    public static int estimateTokens(String s) {
+        return s == null ? 0 : (s.length() + 3) / 4;
+    }
+
+    /** Cleans the README and fits it into the configured token budget. */
+    public String fit(String readme) {
+        return fit(readme, tokenBudget);
+    }
+
+    public String fit(String readme, int budget) {
+        String cleaned = clean(readme);
+        if (estimateTokens(cleaned) <= budget) return cleaned;
+
+        List<Section> ranked = new ArrayList<>(sections(cleaned));
+        ranked.sort(Comparator.comparingInt(Section::score).reversed().thenComparingInt(Section::index));
+
+        List<Section> kept = new ArrayList<>();
+        int used = 0;
+        for (Section s : ranked) {
+            if (s.score() < 0) break;
+            int cost = estimateTokens(s.text());
+            if (used + cost <= budget) {
+                kept.add(s);
+                used += cost;
+            } else if (kept.isEmpty() || budget - used > 50) {
+                // Partially include a high-ranked section rather than wasting the remainder
+                int chars = Math.max(0, (budget - used) * 4);
+                kept.add(new Section(s.index(), s.heading(), s.text().substring(0, Math.min(chars, s.text().length())), s.score()));
+                break;
+            }
+        }
+
+        kept.sort(Comparator.comparingInt(Section::index));
+        StringBuilder out = new StringBuilder();
+        kept.forEach(s -> out.append(s.text()).append('\n'));
+        return out.toString().strip();
+    }
+
+    /**
+     * Splits the cleaned README into chunks of roughly {@code chunkTokens} each,
+     * breaking on section boundaries where possible. Used by map-reduce extraction.
+     */
+    public List<String> chunks(String readme, int chunkTokens) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (Section s : sections(clean(readme))) {
+            if (s.score() < 0) continue;
+            String text = s.text();
+            if (current.length() > 0 && estimateTokens(current.toString()) + estimateTokens(text) > chunkTokens) {
+                chunks.add(current.toString().strip());
+                current.setLength(0);
+            }
+            // A single oversized section is split hard
+            while (estimateTokens(text) > chunkTokens) {
+                int cut = chunkTokens * 4;
+                chunks.add(text.substring(0, cut).strip());
+                text = text.substring(cut);
+            }
+            current.append(text).append('\n');
+        }
+        if (!current.toString().isBlank()) chunks.add(current.toString().strip());
+        return chunks;
+    }
+
+    String clean(String readme) {
+        if (readme == null || readme.isBlank()) return "";
+
+        String s = HTML_COMMENT.matcher(readme).replaceAll("");
+        s = LINKED_IMAGE.matcher(s).replaceAll("");
+        s = IMAGE.matcher(s).replaceAll("");
+        s = HTML_IMG.matcher(s).replaceAll("");
+        s = HTML_TAG.matcher(s).replaceAll("");
+        s = limitCodeBlocks(s);
+        return BLANK_LINES.matcher(s).replaceAll("\n\n").strip();
+    }
+
+    private String limitCodeBlocks(String s) {
+        StringBuilder out = new StringBuilder(s.length());
+        int blocks = 0;
+        boolean inFence = false;
+        boolean keep = true;
+        for (String line : s.split("\n", -1)) {
+            if (line.stripLeading().startsWith("```")) {
+                if (!inFence) {
+                    blocks++;
+                    keep = blocks <= maxCodeBlocks;
+                }
+                inFence = !inFence;
+                if (keep) out.append(line).append('\n');
+                continue;
+            }
+            if (!inFence || keep) out.append(line).append('\n');
+        }
+        return out.toString();
+    }
+
+    List<Section> sections(String cleaned) {
+        List<Section> sections = new ArrayList<>();
+        StringBuilder body = new StringBuilder();
+        String heading = "";
+        boolean inFence = false;
+        for (String line : cleaned.split("\n", -1)) {
+            if (line.stripLeading().startsWith("```")) inFence = !inFence;
+            if (!inFence && line.startsWith("#")) {
+                if (!body.isEmpty()) sections.add(section(sections.size(), heading, body.toString()));
+                body.setLength(0);
+                heading = line;
+            }
+            body.append(line).append('\n');
+        }
+        if (!body.isEmpty()) sections.add(section(sections.size(), heading, body.toString()));
+        return sections;
+    }
+
+    private static Section section(int index, String heading, String text) {
+        return new Section(index, heading, text, score(index, heading));
+    }
+
+    private static int score(int index, String heading) {
+        String h = heading.toLowerCase(Locale.ROOT);
+        if (index == 0) return 100;      // intro / title block
+        if (h.contains("feature") || h.contains("why") || h.contains("overview") || h.contains("about")) return 90;
+        if (h.contains("install") || h.contains("getting started") || h.contains("quick start") || h.contains("quickstart")) return 80;
+        if (h.contains("usage") || h.contains("example") || h.contains("how to")) return 70;
+        if (h.contains("limitation") || h.contains("caveat") || h.contains("requirement")) return 60;
+        if (h.contains("changelog") || h.contains("release") || h.contains("license") || h.contains("contribut")
+                || h.contains("sponsor") || h.contains("acknowledg") || h.contains("star history") || h.contains("citation")) {
+            return -10;
+        }
+        return 10;
+    }
+}
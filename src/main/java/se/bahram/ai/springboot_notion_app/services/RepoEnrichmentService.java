@@ -0,0 +1,91 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import se.bahram.ai.springboot_notion_app.domain.EnrichedRepo;
+import se.bahram.ai.springboot_notion_app.domain.GitHubRepo;
+import se.bahram.ai.springboot_notion_app.domain.ReadmeFacts;
+import se.bahram.ai.springboot_notion_app.domain.RepoFacts;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Enriches one repo on demand, for the HTTP API.
+ * {@link RepoFacts} and {@link ReadmeFacts} are kept in separate in-memory LRU caches:
+ * star counts go stale within minutes, README facts only when the README changes.
+ * Results of crawl jobs are fed in too, so a crawl warms single-repo lookups.
+ */
+@Service
+public class RepoEnrichmentService {
+
+    private final GitHubFactsService gitHubFactsService;
+    private final ReadmeFactsService readmeFactsService;
+    private final ExpiringLruCache<String, RepoFacts> factsCache;
+    private final ExpiringLruCache<String, ReadmeFacts> readmeFactsCache;
+
+    public RepoEnrichmentService(
+            GitHubFactsService gitHubFactsService,
+            ReadmeFactsService readmeFactsService,
+            @Value("${api.cache.maxEntries:1000}") int maxEntries,
+            @Value("${api.cache.factsTtl:10m}") Duration factsTtl,
+            @Value("${api.cache.readmeFactsTtl:6h}") Duration readmeFactsTtl
+    ) {
+        this.gitHubFactsService = gitHubFactsService;
+        this.readmeFactsService = readmeFactsService;
+        this.factsCache = new ExpiringLruCache<>(maxEntries, factsTtl);
+        this.readmeFactsCache = new ExpiringLruCache<>(maxEntries, readmeFactsTtl);
+    }
+
+    /**
+     * A repo without a README gets {@code readmeFacts == null}; an unknown repo fails with
+     * GitHub's 404, wrapped in a {@link java.util.concurrent.CompletionException}.
+     * Degraded facts and missing READMEs are not cached.
+     * @param refresh skip the caches and fetch everything again
+     */
+    public EnrichedRepo enrich(String owner, String repo, boolean refresh) {
+        String key = key(owner, repo);
+
+        RepoFacts facts = refresh ? null : factsCache.get(key);
+        if (facts == null) {
+            GitHubFactsService.Fetch fetch = gitHubFactsService.fetchAsync(owner, repo, 0, null).join();
+            facts = fetch.facts();
+            if (!fetch.degraded()) factsCache.put(key, facts);
+        }
+
+        ReadmeFacts readmeFacts = refresh ? null : readmeFactsCache.get(key);
+        if (readmeFacts == null) {
+            try {
+                readmeFacts = readmeFactsService.extract(owner, repo);
+                readmeFactsCache.put(key, readmeFacts);
+            } catch (HttpClientErrorException.NotFound e) {
+                // the repo exists (its facts were just fetched), it has no README
+            }
+        }
+
+        GitHubRepo gitHubRepo = new GitHubRepo(owner, repo, facts.description(), facts.mainLanguage(),
+                facts.starsToday(), "https://github.com/" + owner + "/" + repo);
+        return new EnrichedRepo(gitHubRepo, facts, readmeFacts, null);
+    }
+
+    /** Caches whatever a pipeline run produced for this repo. */
+    public void remember(EnrichedRepo enriched) {
+        String key = key(enriched.repo().owner(), enriched.repo().repo());
+        factsCache.put(key, enriched.facts());
+        readmeFactsCache.put(key, enriched.readmeFacts());
+    }
+
+    public ExpiringLruCache<String, RepoFacts> factsCache() {
+        return factsCache;
+    }
+
+    public ExpiringLruCache<String, ReadmeFacts> readmeFactsCache() {
+        return readmeFactsCache;
+    }
+
+    // GitHub owner and repo names are case-insensitive
+    private static String key(String owner, String repo) {
+        return (owner + "/" + repo).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,157 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Durable, append-only record of which pipeline stage finished for which repo, with its result.
+ * A run that crashed is resumed on the next start; stages whose input fingerprint
+ * is unchanged since they last completed are skipped, in this run or a later one.
+ * One JSON object per line; compacted to the latest entry per repo and stage when a new run starts.
+ */
+@Component
+public class RunJournal {
+
+    public enum Stage { RUN_STARTED, SCRAPED, FACTS, RUN_FINISHED }
+
+    public record Entry(String runId, String repo, Stage stage, String inputHash, JsonNode result) {}
+
+    /** Returned by {@link #startRun}: the run id and whether it continues an unfinished run. */
+    public record Run(String id, boolean resumed) {}
+
+    private static final String RUN = "*";
+
+    private final Path file;
+    private final ObjectMapper om;
+    private final boolean enabled;
+    private final Map<String, Entry> latest = new HashMap<>();   // key: repo|stage
+    private String runId;
+    private boolean loaded;
+
+    public RunJournal(
+            ObjectMapper om,
+            @Value("${pipeline.journal.file:.cache/run-journal.ndjson}") String file,
+            @Value("${pipeline.journal.enabled:true}") boolean enabled
+    ) {
+        this.om = om;
+        this.file = Path.of(file);
+        this.enabled = enabled;
+    }
+
+    /** Resumes the last run if it never finished, otherwise starts a new one. */
+    public synchronized Run startRun() {
+        load();
+        Entry started = latest.get(key(RUN, Stage.RUN_STARTED));
+        Entry finished = latest.get(key(RUN, Stage.RUN_FINISHED));
+        if (started != null && (finished == null || !finished.runId().equals(started.runId()))) {
+            runId = started.runId();
+            return new Run(runId, true);
+        }
+        runId = Instant.now().toString();
+        compact();
+        append(new Entry(runId, RUN, Stage.RUN_STARTED, "", null));
+        return new Run(runId, false);
+    }
+
+    public synchronized void finishRun() {
+        append(new Entry(runId, RUN, Stage.RUN_FINISHED, "", null));
+    }
+
+    /** Run-level results, e.g. the scraped repo list of the current run. */
+    public <T> Optional<T> runResult(Stage stage, Class<T> type) {
+        return completed(RUN, stage, runId, type);
+    }
+
+    public void recordRun(Stage stage, Object result) {
+        record(RUN, stage, runId, result);
+    }
+
+    /**
+     * @return the stored result if {@code stage} last completed for {@code repo} with the same input fingerprint
+     */
+    public synchronized <T> Optional<T> completed(String repo, Stage stage, String inputHash, Class<T> type) {
+        if (!enabled) return Optional.empty();
+        load();
+        Entry e = latest.get(key(repo, stage));
+        if (e == null || !e.inputHash().equals(inputHash) || e.result() == null) return Optional.empty();
+        try {
+            return Optional.of(om.treeToValue(e.result(), type));
+        } catch (IOException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public synchronized void record(String repo, Stage stage, String inputHash, Object result) {
+        if (!enabled) return;
+        append(new Entry(runId, repo, stage, inputHash, result == null ? null : om.valueToTree(result)));
+    }
+
+    private void append(Entry e) {
+        latest.put(key(e.repo(), e.stage()), e);
+        if (!enabled) return;
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                w.write(om.writeValueAsString(e));
+                w.write('\n');
+            }
+        } catch (IOException ex) {
+            System.out.println("Could not append to run journal: " + ex.getMessage());
+        }
+    }
+
+    private void load() {
+        if (loaded || !enabled) return;
+        loaded = true;
+        if (!Files.isRegularFile(file)) return;
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                try {
+                    Entry e = om.readValue(line, Entry.class);
+                    latest.put(key(e.repo(), e.stage()), e);
+                } catch (IOException ex) {
+                    // torn last line after a crash
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read run journal: " + e.getMessage());
+        }
+    }
+
+    /** Rewrites the journal with only the latest entry per repo and stage. */
+    private void compact() {
+        if (!enabled || latest.isEmpty()) return;
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent() == null ? Path.of(".") : file.getParent(), "journal", ".tmp");
+            List<String> lines = new ArrayList<>(latest.size());
+            for (Entry e : latest.values()) lines.add(om.writeValueAsString(e));
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Could not compact run journal: " + e.getMessage());
+        }
+    }
+
+    private static String key(String repo, Stage stage) {
+        return repo + "|" + stage;
+    }
+}
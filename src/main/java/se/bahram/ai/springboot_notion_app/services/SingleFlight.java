@@ -0,0 +1,90 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call,
+ * everyone arriving while it is in flight gets the same result (or failure).
+ * Nothing is cached; once the call completes the next caller starts a new one.
+ * Exported as {@code singleflight.coalesced} and {@code singleflight.inflight}, tagged by name.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public SingleFlight(String name, MeterRegistry meters) {
+        FunctionCounter.builder("singleflight.coalesced", coalesced, AtomicLong::get)
+                .description("Calls that joined an identical in-flight call instead of going upstream")
+                .tag("name", name)
+                .register(meters);
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+                .tag("name", name)
+                .register(meters);
+    }
+
+    /** Blocking form: the first caller runs {@code call} on its own thread, the others wait for it. */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return join(leader);
+        }
+        try {
+            V value = call.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Async form. Each caller gets its own copy of the shared future,
+     * so cancelling one does not cancel the call for the others.
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return leader.copy();
+        }
+        try {
+            call.get().whenComplete((value, e) -> {
+                inFlight.remove(key, mine);
+                if (e != null) mine.completeExceptionally(e);
+                else mine.complete(value);
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+        }
+        return mine.copy();
+    }
+
+    /** Rethrows the leader's own exception, as if this caller had made the call. */
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Daily star totals per repo, kept in an append-only log
+ * ({@code owner/repo <TAB> epochDay <TAB> stars} per line) with an in-memory index,
+ * so star deltas need no stargazer crawl.
+ */
+@Component
+public class StarSnapshotStore {
+
+    /**
+     * Stars gained over the last 7/30/90 days; null when there is no snapshot within
+     * {@value #TOLERANCE_DAYS} days of the period start (history too short, or runs skipped).
+     */
+    public record Deltas(Integer days7, Integer days30, Integer days90) {
+
+        /** For a response without a star count, which must not be recorded as a snapshot. */
+        public static final Deltas UNKNOWN = new Deltas(null, null, null);
+    }
+
+    /** How far a snapshot may be from {@code today - days} and still stand in for it. */
+    static final int TOLERANCE_DAYS = 2;
+
+    private final Path log;
+    private final Clock clock;
+    private final Map<String, TreeMap<Long, Integer>> index = new HashMap<>();
+    private boolean loaded;
+
+    @Autowired
+    public StarSnapshotStore(@Value("${github.starSnapshotLog:.cache/star-snapshots.log}") String log) {
+        this(Path.of(log), Clock.systemUTC());
+    }
+
+    StarSnapshotStore(Path log, Clock clock) {
+        this.log = log;
+        this.clock = clock;
+    }
+
+    /** Records today's total (once per day) and returns deltas against earlier snapshots. */
+    public synchronized Deltas recordAndDiff(String owner, String repo, int totalStars) {
+        load();
+        String key = owner + "/" + repo;
+        long today = LocalDate.now(clock).toEpochDay();
+        TreeMap<Long, Integer> series = index.computeIfAbsent(key, k -> new TreeMap<>());
+
+        Integer existing = series.get(today);
+        if (existing == null || existing != totalStars) {
+            series.put(today, totalStars);
+            append(key, today, totalStars);
+        }
+        return new Deltas(
+                delta(series, today, 7, totalStars),
+                delta(series, today, 30, totalStars),
+                delta(series, today, 90, totalStars));
+    }
+
+    private static Integer delta(TreeMap<Long, Integer> series, long today, int days, int totalStars) {
+        long cutoff = today - days;
+        Map.Entry<Long, Integer> before = series.floorEntry(cutoff);
+        Map.Entry<Long, Integer> after = series.ceilingEntry(cutoff);
+        // Closest snapshot to the cutoff; an older one would report a longer period as this one
+        Map.Entry<Long, Integer> then = before == null ? after
+                : after == null || cutoff - before.getKey() <= after.getKey() - cutoff ? before : after;
+        if (then == null || Math.abs(then.getKey() - cutoff) > TOLERANCE_DAYS) return null;
+        return totalStars - then.getValue();
+    }
+
+    private void load() {
+        if (loaded) return;
+        loaded = true;
+        if (!Files.isRegularFile(log)) return;
+        try {
+            List<String> lines = Files.readAllLines(log, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                String[] parts = line.split("\t");
+                if (parts.length != 3) continue;  // torn write at the tail
+                try {
+                    index.computeIfAbsent(parts[0], k -> new TreeMap<>())
+                            .put(Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+                } catch (NumberFormatException e) {
+                    // skip malformed line
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read star snapshots: " + e.getMessage());
+        }
+    }
+
+    private void append(String key, long epochDay, int stars) {
+        try {
+            if (log.getParent() != null) Files.createDirectories(log.getParent());
+            try (BufferedWriter w = Files.newBufferedWriter(log, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                w.write(key + "\t" + epochDay + "\t" + stars + "\n");
+            }
+        } catch (IOException e) {
+            System.out.println("Could not append star snapshot: " + e.getMessage());
+        }
+    }
+}
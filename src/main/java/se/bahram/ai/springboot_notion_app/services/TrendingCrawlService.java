@@ -0,0 +1,129 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import se.bahram.ai.springboot_notion_app.domain.CrawledRepo;
+import se.bahram.ai.springboot_notion_app.domain.GitHubRepo;
+import se.bahram.ai.springboot_notion_app.domain.TrendingAppearance;
+import se.bahram.ai.springboot_notion_app.domain.enums.GitHubTrendingDateRange;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Crawls every language × date range × spoken language Trending listing and
+ * merges them so each repo appears (and is enriched) once.
+ * Requests to github.com are limited to {@code github.trendingCrawl.concurrency}
+ * at a time and spaced by {@code github.trendingCrawl.delay}.
+ */
+@Service
+public class TrendingCrawlService {
+
+    /** One Trending page to fetch. */
+    private record Listing(String language, GitHubTrendingDateRange dateRange, String spokenLanguage) {}
+
+    private final GitHubTrendingScraper scraper;
+    private final Semaphore politeness;
+    private final long delayMillis;
+    private final Object pacingLock = new Object();
+    private long nextRequestAt;
+
+    public TrendingCrawlService(
+            GitHubTrendingScraper scraper,
+            @Value("${github.trendingCrawl.concurrency:2}") int concurrency,
+            @Value("${github.trendingCrawl.delay:500ms}") Duration delay
+    ) {
+        this.scraper = scraper;
+        this.politeness = new Semaphore(Math.max(1, concurrency), true);
+        this.delayMillis = delay.toMillis();
+    }
+
+    /**
+     * @param languages       programming languages as used in the Trending URL; "" means all
+     * @param dateRanges      ranges to crawl
+     * @param spokenLanguages spoken language codes, e.g. "en"
+     * @return unique repos, ordered by their best rank across listings
+     */
+    public List<CrawledRepo> crawl(Collection<String> languages,
+                                   Collection<GitHubTrendingDateRange> dateRanges,
+                                   Collection<String> spokenLanguages) throws InterruptedException {
+        List<Listing> listings = new ArrayList<>();
+        for (String language : languages)
+            for (GitHubTrendingDateRange range : dateRanges)
+                for (String spoken : spokenLanguages)
+                    listings.add(new Listing(language, range, spoken));
+
+        Map<Listing, List<GitHubRepo>> pages = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<Listing, Future<List<GitHubRepo>>> futures = new LinkedHashMap<>();
+            listings.forEach(l -> futures.put(l, executor.submit(() -> fetchPolitely(l))));
+            for (var e : futures.entrySet()) {
+                try {
+                    pages.put(e.getKey(), e.getValue().get());
+                } catch (ExecutionException ex) {
+                    // One broken listing should not sink the crawl
+                    System.out.println("Trending listing " + e.getKey() + " failed: " + ex.getCause());
+                }
+            }
+        }
+        return merge(pages);
+    }
+
+    private List<GitHubRepo> fetchPolitely(Listing l) throws Exception {
+        politeness.acquire();
+        try {
+            long wait;
+            synchronized (pacingLock) {
+                long now = System.currentTimeMillis();
+                wait = Math.max(0, nextRequestAt - now);
+                nextRequestAt = Math.max(now, nextRequestAt) + delayMillis;
+            }
+            if (wait > 0) Thread.sleep(wait);
+            return scraper.fetch(l.language(), l.dateRange(), l.spokenLanguage());
+        } finally {
+            politeness.release();
+        }
+    }
+
+    private static List<CrawledRepo> merge(Map<Listing, List<GitHubRepo>> pages) {
+        Map<String, GitHubRepo> representative = new LinkedHashMap<>();
+        Map<String, GitHubTrendingDateRange> representativeRange = new HashMap<>();
+        Map<String, List<TrendingAppearance>> appearances = new LinkedHashMap<>();
+
+        pages.forEach((listing, repos) -> {
+            for (int i = 0; i < repos.size(); i++) {
+                GitHubRepo repo = repos.get(i);
+                String key = (repo.owner() + "/" + repo.repo()).toLowerCase();
+                appearances.computeIfAbsent(key, k -> new ArrayList<>()).add(new TrendingAppearance(
+                        listing.language(), listing.dateRange(), listing.spokenLanguage(), i + 1, repo.starsToday()));
+                // Keep the copy from the shortest range so starsToday really is "today" when we have it
+                GitHubTrendingDateRange keptRange = representativeRange.get(key);
+                if (keptRange == null || listing.dateRange().ordinal() < keptRange.ordinal()) {
+                    representative.put(key, repo);
+                    representativeRange.put(key, listing.dateRange());
+                }
+            }
+        });
+
+        List<CrawledRepo> merged = new ArrayList<>(representative.size());
+        representative.forEach((key, repo) -> {
+            // A weekly/monthly count is not "today"; it stays available on the appearance with its range
+            GitHubRepo today = representativeRange.get(key) == GitHubTrendingDateRange.daily ? repo
+                    : new GitHubRepo(repo.owner(), repo.repo(), repo.description(), repo.language(), 0, repo.url());
+            merged.add(new CrawledRepo(today, List.copyOf(appearances.get(key))));
+        });
+        merged.sort(Comparator.comparingInt(c -> c.appearances().stream().mapToInt(TrendingAppearance::rank).min().orElse(Integer.MAX_VALUE)));
+        return merged;
+    }
+}
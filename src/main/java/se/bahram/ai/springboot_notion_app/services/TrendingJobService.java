@@ -0,0 +1,134 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import se.bahram.ai.springboot_notion_app.domain.CrawledRepo;
+import se.bahram.ai.springboot_notion_app.domain.EnrichedRepo;
+import se.bahram.ai.springboot_notion_app.domain.enums.GitHubTrendingDateRange;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs crawl + enrichment in the background for the HTTP API and keeps the last
+ * {@code api.jobs.retain} jobs in memory for status polling. Results are visible
+ * while the job runs, in completion order.
+ */
+@Service
+public class TrendingJobService {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    /** Point-in-time view of a job. */
+    public record JobStatus(String id, Status status, Instant submittedAt, Instant finishedAt,
+                            int total, int completed, List<EnrichedRepo> results, String error) {}
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final Instant submittedAt = Instant.now();
+        final List<EnrichedRepo> results = new CopyOnWriteArrayList<>();
+        volatile Status status = Status.QUEUED;
+        volatile Instant finishedAt;
+        volatile int total = -1;
+        volatile String error;
+
+        JobStatus snapshot(boolean withResults) {
+            List<EnrichedRepo> done = List.copyOf(results);
+            return new JobStatus(id, status, submittedAt, finishedAt, total, done.size(),
+                    withResults ? done : null, error);
+        }
+    }
+
+    private final TrendingCrawlService crawlService;
+    private final TrendingPipelineService pipelineService;
+    private final RepoEnrichmentService repoEnrichmentService;
+    private final int retain;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // guarded by this; insertion order = submission order
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public TrendingJobService(
+            TrendingCrawlService crawlService,
+            TrendingPipelineService pipelineService,
+            RepoEnrichmentService repoEnrichmentService,
+            @Value("${api.jobs.retain:50}") int retain
+    ) {
+        this.crawlService = crawlService;
+        this.pipelineService = pipelineService;
+        this.repoEnrichmentService = repoEnrichmentService;
+        this.retain = Math.max(1, retain);
+    }
+
+    /**
+     * @param languages       "" (or "all") for all languages
+     * @return the queued job
+     */
+    public JobStatus submit(List<String> languages, List<GitHubTrendingDateRange> dateRanges, List<String> spokenLanguages) {
+        Job job = new Job();
+        synchronized (this) {
+            jobs.put(job.id, job);
+            evictFinished();
+        }
+        List<String> crawlLanguages = languages.stream().map(l -> "all".equalsIgnoreCase(l) ? "" : l).toList();
+        executor.submit(() -> run(job, crawlLanguages, dateRanges, spokenLanguages));
+        return job.snapshot(false);
+    }
+
+    public synchronized Optional<JobStatus> status(String id, boolean withResults) {
+        Job job = jobs.get(id);
+        return Optional.ofNullable(job).map(j -> j.snapshot(withResults));
+    }
+
+    public synchronized List<JobStatus> list() {
+        return jobs.values().stream().map(j -> j.snapshot(false)).toList().reversed();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job, List<String> languages, List<GitHubTrendingDateRange> dateRanges, List<String> spokenLanguages) {
+        job.status = Status.RUNNING;
+        try {
+            List<CrawledRepo> crawled = crawlService.crawl(languages, dateRanges, spokenLanguages);
+            job.total = crawled.size();
+            pipelineService.enrich(crawled.stream().map(CrawledRepo::repo).toList(), enriched -> {
+                job.results.add(enriched);
+                repoEnrichmentService.remember(enriched);
+            });
+            job.status = Status.SUCCEEDED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.error = "interrupted";
+            job.status = Status.FAILED;
+        } catch (Exception e) {
+            job.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            job.status = Status.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    /** Drops the oldest finished jobs beyond {@code retain}; running jobs are never dropped. */
+    private void evictFinished() {
+        int excess = jobs.size() - retain;
+        for (Iterator<Job> it = jobs.values().iterator(); it.hasNext() && excess > 0; ) {
+            Job j = it.next();
+            if (j.finishedAt != null) {
+                it.remove();
+                excess--;
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import se.bahram.ai.springboot_notion_app.domain.EnrichedRepo;
+import se.bahram.ai.springboot_notion_app.domain.GitHubRepo;
+import se.bahram.ai.springboot_notion_app.domain.ReadmeFacts;
+import se.bahram.ai.springboot_notion_app.domain.RepoFacts;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Enriches trending repos concurrently: one virtual thread per repo,
+ * with separate permits for GitHub calls and for LLM calls.
+ * Each stage records {@code pipeline.stage} (time holding the permit) and
+ * {@code pipeline.permit.wait} (time queued for it), the two numbers to tune the concurrency settings by.
+ */
+@Service
+public class TrendingPipelineService {
+
+    /** GitHub-side results for one repo, before README extraction. */
+    private record Fetched(GitHubRepo repo, RepoFacts facts, String readme, String error) {}
+
+    private final GitHubFactsService gitHubFactsService;
+    private final ReadmeFactsService readmeFactsService;
+    private final GitHubGraphQlFactsService graphQlFactsService;
+    private final RunJournal journal;
+    private final MeterRegistry meters;
+    private final Semaphore githubPermits;
+    private final Semaphore llmPermits;
+    private final boolean llmBatch;
+    private final boolean graphql;
+
+    public TrendingPipelineService(
+            GitHubFactsService gitHubFactsService,
+            ReadmeFactsService readmeFactsService,
+            GitHubGraphQlFactsService graphQlFactsService,
+            RunJournal journal,
+            MeterRegistry meters,
+            @Value("${pipeline.githubConcurrency:8}") int githubConcurrency,
+            @Value("${pipeline.llmConcurrency:4}") int llmConcurrency,
+            @Value("${pipeline.llmBatch:false}") boolean llmBatch,
+            @Value("${pipeline.graphql:false}") boolean graphql
+    ) {
+        this.gitHubFactsService = gitHubFactsService;
+        this.readmeFactsService = readmeFactsService;
+        this.graphQlFactsService = graphQlFactsService;
+        this.journal = journal;
+        this.meters = meters;
+        this.githubPermits = new Semaphore(Math.max(1, githubConcurrency), true);
+        this.llmPermits = new Semaphore(Math.max(1, llmConcurrency), true);
+        this.llmBatch = llmBatch;
+        this.graphql = graphql;
+    }
+
+    public List<EnrichedRepo> enrich(List<GitHubRepo> repos) throws InterruptedException {
+        return enrich(repos, r -> {});
+    }
+
+    /**
+     * Enriches all repos and hands each result to {@code onResult} as soon as it finishes.
+     * @return results in completion order
+     */
+    public List<EnrichedRepo> enrich(List<GitHubRepo> repos, Consumer<EnrichedRepo> onResult) throws InterruptedException {
+        Map<String, GitHubGraphQlFactsService.Result> prefetched = prefetch(repos);
+        if (llmBatch) {
+            return enrichBatched(repos, prefetched, onResult);
+        }
+        List<EnrichedRepo> results = new ArrayList<>(repos.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<EnrichedRepo> completion = new ExecutorCompletionService<>(executor);
+            repos.forEach(repo -> completion.submit(() -> enrichOne(repo, prefetched.get(fullName(repo)))));
+
+            for (int i = 0; i < repos.size(); i++) {
+                EnrichedRepo result = get(completion.take());
+                results.add(result);
+                onResult.accept(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Batch mode: fetch facts and READMEs concurrently, then extract all READMEs
+     * with {@link ReadmeFactsService#extractBatch} to save LLM round trips.
+     * Results are delivered after the LLM phase, in input order.
+     */
+    private List<EnrichedRepo> enrichBatched(List<GitHubRepo> repos,
+                                             Map<String, GitHubGraphQlFactsService.Result> prefetched,
+                                             Consumer<EnrichedRepo> onResult) throws InterruptedException {
+        List<Fetched> fetched = new ArrayList<>(repos.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Fetched>> futures = repos.stream()
+                    .map(repo -> executor.submit(() -> fetchGitHub(repo, prefetched.get(fullName(repo)))))
+                    .toList();
+            for (Future<Fetched> f : futures) {
+                fetched.add(get(f));
+            }
+        }
+
+        Map<String, String> readmes = new LinkedHashMap<>();
+        fetched.stream()
+                .filter(f -> f.error() == null)
+                .forEach(f -> readmes.put(fullName(f.repo()), f.readme()));
+        // Unchanged READMEs are answered by ReadmeFactsService's own cache
+        Map<String, ReadmeFacts> extracted = stageTimer("extract_batch").record(() -> readmeFactsService.extractBatch(readmes));
+
+        List<EnrichedRepo> results = new ArrayList<>(fetched.size());
+        for (Fetched f : fetched) {
+            ReadmeFacts readmeFacts = extracted.get(fullName(f.repo()));
+            String error = f.error() != null ? f.error()
+                    : readmeFacts == null ? "README extraction failed" : null;
+            EnrichedRepo result = new EnrichedRepo(f.repo(), f.facts(), readmeFacts, error);
+            results.add(result);
+            onResult.accept(result);
+        }
+        return results;
+    }
+
+    /** With pipeline.graphql, fetches facts and READMEs for the whole list in a few aliased queries. */
+    private Map<String, GitHubGraphQlFactsService.Result> prefetch(List<GitHubRepo> repos) throws InterruptedException {
+        if (!graphql) return Map.of();
+        try {
+            return withPermit(githubPermits, "prefetch", () -> graphQlFactsService.fetchFacts(repos));
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            return Map.of();
+        }
+    }
+
+    private EnrichedRepo enrichOne(GitHubRepo repo, GitHubGraphQlFactsService.Result prefetched) {
+        Fetched fetched = fetchGitHub(repo, prefetched);
+        if (fetched.error() != null) {
+            return new EnrichedRepo(repo, fetched.facts(), null, fetched.error());
+        }
+        try {
+            ReadmeFacts readmeFacts = withPermit(llmPermits, "extract",
+                    () -> readmeFactsService.extract(repo.owner(), repo.repo(), fetched.readme()));
+            return new EnrichedRepo(repo, fetched.facts(), readmeFacts, null);
+        } catch (Exception e) {
+            return new EnrichedRepo(repo, fetched.facts(), null, describe(e));
+        }
+    }
+
+    /** Uses whatever GraphQL prefetched and falls back to REST for the rest. */
+    private Fetched fetchGitHub(GitHubRepo repo, GitHubGraphQlFactsService.Result prefetched) {
+        // Facts are good for the day they were fetched on
+        String name = fullName(repo);
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+        RepoFacts facts = prefetched == null
+                ? journal.completed(name, RunJournal.Stage.FACTS, today, RepoFacts.class).orElse(null)
+                : prefetched.facts();
+        try {
+            if (facts == null) {
+                GitHubFactsService.Fetch fetch = withPermit(githubPermits, "facts",
+                        () -> gitHubFactsService.fetchAsync(repo.owner(), repo.repo(), repo.starsToday(), null).join());
+                facts = fetch.facts();
+                // Degraded facts are used for this run but fetched again by the next one
+                if (!fetch.degraded()) journal.record(name, RunJournal.Stage.FACTS, today, facts);
+            }
+            String readme = prefetched != null && prefetched.readme() != null
+                    ? prefetched.readme()
+                    : withPermit(githubPermits, "readme_fetch", () -> readmeFactsService.fetchReadmeRaw(repo.owner(), repo.repo()));
+            return new Fetched(repo, facts, readme, null);
+        } catch (Exception e) {
+            return new Fetched(repo, facts, null, describe(e));
+        }
+    }
+
+    private <T> T withPermit(Semaphore permits, String stage, Callable<T> call) throws Exception {
+        long queued = System.nanoTime();
+        permits.acquire();
+        Timer.builder("pipeline.permit.wait")
+                .description("Time a stage waited for a GitHub or LLM permit")
+                .tag("stage", stage)
+                .register(meters)
+                .record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+        try {
+            return stageTimer(stage).recordCallable(call);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("pipeline.stage")
+                .description("Latency of one pipeline stage for one repo (or one batch)")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meters);
+    }
+
+    private static String describe(Exception e) {
+        return e instanceof InterruptedException ? "interrupted" : e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    private static String fullName(GitHubRepo repo) {
+        return repo.owner() + "/" + repo.repo();
+    }
+
+    private static <T> T get(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // tasks catch their own failures; anything here is a bug
+            throw new IllegalStateException("Pipeline task failed", e.getCause());
+        }
+    }
+}
@@ -2,10 +2,27 @@ package se.bahram.ai.springboot_notion_app;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
-@SpringBootTest
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// No crawl on startup, and every cache and journal in a temp dir instead of the working tree
+@SpringBootTest(properties = "pipeline.runOnStartup=false")
 class SpringbootNotionAppApplicationTests {
 
+	@DynamicPropertySource
+	static void cacheDirs(DynamicPropertyRegistry registry) throws IOException {
+		Path dir = Files.createTempDirectory("springboot-notion-app-test");
+		registry.add("github.httpCacheDir", () -> dir.resolve("github-http").toString());
+		registry.add("github.starSnapshotLog", () -> dir.resolve("star-snapshots.log").toString());
+		registry.add("notion.pageIndexFile", () -> dir.resolve("notion-page-index.json").toString());
+		registry.add("pipeline.readmeFactsCacheDir", () -> dir.resolve("readme-facts").toString());
+		registry.add("pipeline.journal.file", () -> dir.resolve("run-journal.ndjson").toString());
+	}
+
 	@Test
 	void contextLoads() {
 	}
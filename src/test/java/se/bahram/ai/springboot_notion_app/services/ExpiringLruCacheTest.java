@@ -0,0 +1,63 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringLruCacheTest {
+
+    /** Clock the test can move forward. */
+    private static final class MutableClock extends Clock {
+        Instant now = Instant.parse("2026-10-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        MutableClock clock = new MutableClock();
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, Duration.ofMinutes(5), clock);
+        cache.put("a/b", "facts");
+
+        clock.now = clock.now.plus(Duration.ofMinutes(4));
+        assertThat(cache.get("a/b")).isEqualTo("facts");
+
+        clock.now = clock.now.plus(Duration.ofMinutes(2));
+        assertThat(cache.get("a/b")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2, Duration.ofHours(1), new MutableClock());
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");          // b is now the least recently used
+        cache.put("c", "3");
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("c")).isEqualTo("3");
+    }
+}
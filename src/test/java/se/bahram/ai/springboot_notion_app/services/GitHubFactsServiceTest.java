@@ -0,0 +1,54 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubFactsServiceTest {
+
+    private static final char[] THRESHOLD = "2026-09-01T00:00:00Z".toCharArray();
+
+    @Test
+    void countsOnlyStarsAtOrAfterThreshold() throws Exception {
+        String page = """
+                [
+                  {"starred_at": "2026-08-30T10:00:00Z", "user": {"login": "a", "id": 1}},
+                  {"starred_at": "2026-09-01T00:00:00Z", "user": {"login": "b", "id": 2}},
+                  {"starred_at": "2026-09-15T08:00:00Z", "user": {"login": "c", "id": 3}}
+                ]
+                """;
+
+        GitHubFactsService.PageCount pc = GitHubFactsService.countStarredSince(
+                new JsonFactory(), page.getBytes(StandardCharsets.UTF_8), THRESHOLD);
+
+        assertThat(pc.items()).isEqualTo(3);
+        assertThat(pc.recent()).isEqualTo(2);
+        assertThat(pc.reachedOlder()).isTrue();
+    }
+
+    @Test
+    void pageWithOnlyRecentStarsDoesNotStopTheWalk() throws Exception {
+        String page = "[{\"user\":{\"login\":\"x\"},\"starred_at\":\"2026-10-01T00:00:00Z\"}]";
+
+        GitHubFactsService.PageCount pc = GitHubFactsService.countStarredSince(
+                new JsonFactory(), page.getBytes(StandardCharsets.UTF_8), THRESHOLD);
+
+        assertThat(pc.recent()).isEqualTo(1);
+        assertThat(pc.reachedOlder()).isFalse();
+    }
+
+    @Test
+    void lastPageIsReadFromLinkHeader() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK,
+                "<https://api.github.com/repositories/1/stargazers?per_page=1&page=2>; rel=\"next\", "
+                        + "<https://api.github.com/repositories/1/stargazers?per_page=1&page=5432>; rel=\"last\"");
+
+        assertThat(GitHubFactsService.lastPage(headers)).isEqualTo(5432);
+        assertThat(GitHubFactsService.lastPage(new HttpHeaders())).isEqualTo(-1);
+    }
+}
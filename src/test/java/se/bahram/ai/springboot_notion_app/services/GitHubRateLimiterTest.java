@@ -0,0 +1,110 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubRateLimiterTest {
+
+    /** Clock the test can move forward. */
+    private static final class MutableClock extends Clock {
+        Instant now = Instant.parse("2026-10-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private final GitHubRateLimiter limiter = new GitHubRateLimiter(10, 20, 200, 0);
+
+    @Test
+    void graphqlAndRestQuotasAreTrackedSeparately() throws Exception {
+        long reset = System.currentTimeMillis() / 1000 + 3600;
+
+        call("/graphql", null, "12", reset);
+        call("/repos/octo/cat", null, "4800", reset);
+
+        assertThat(limiter.quotaRemaining(GitHubRateLimiter.GRAPHQL)).isEqualTo(12);
+        assertThat(limiter.quotaRemaining(GitHubRateLimiter.CORE)).isEqualTo(4800);
+        // an almost exhausted GraphQL quota slows GraphQL down, not REST
+        assertThat(limiter.ratePerSecond(GitHubRateLimiter.GRAPHQL)).isLessThan(0.1);
+        assertThat(limiter.ratePerSecond(GitHubRateLimiter.CORE)).isGreaterThan(1);
+    }
+
+    @Test
+    void aFreshQuotaRunsAtTheConfiguredRate() throws Exception {
+        call("/repos/octo/cat", null, "4999", System.currentTimeMillis() / 1000 + 3600);
+
+        assertThat(limiter.ratePerSecond(GitHubRateLimiter.CORE)).isEqualTo(10);
+    }
+
+    @Test
+    void theChargedResourceHeaderWinsOverThePath() throws Exception {
+        call("/repos/octo/cat", GitHubRateLimiter.GRAPHQL, "7", System.currentTimeMillis() / 1000 + 60);
+
+        assertThat(limiter.quotaRemaining(GitHubRateLimiter.GRAPHQL)).isEqualTo(7);
+        assertThat(limiter.quotaRemaining(GitHubRateLimiter.CORE)).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void aForbiddenResponseWithQuotaLeftIsRetriedAfterAMinute() throws Exception {
+        MutableClock clock = new MutableClock();
+        List<Long> sleeps = new ArrayList<>();
+        GitHubRateLimiter limiter = new GitHubRateLimiter(10, 20, 200, 4, clock, millis -> {
+            sleeps.add(millis);
+            clock.now = clock.now.plusMillis(millis);
+        });
+        AtomicInteger attempts = new AtomicInteger();
+
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://api.github.com/repos/octo/cat"));
+        ClientHttpResponse response = limiter.intercept(request, new byte[0], (req, body) -> {
+            // secondary rate limit: 403 with quota left and no Retry-After
+            MockClientHttpResponse r = new MockClientHttpResponse(new byte[0],
+                    attempts.incrementAndGet() == 1 ? HttpStatus.FORBIDDEN : HttpStatus.OK);
+            r.getHeaders().set("X-RateLimit-Remaining", "4000");
+            r.getHeaders().set("X-RateLimit-Reset", Long.toString(clock.now.getEpochSecond() + 3600));
+            return r;
+        });
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(attempts).hasValue(2);
+        assertThat(limiter.throttled()).isEqualTo(1);
+        assertThat(sleeps).anyMatch(millis -> millis >= 60_000);
+    }
+
+    private void call(String path, String resource, String remaining, long reset) throws Exception {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://api.github.com" + path));
+        limiter.intercept(request, new byte[0], (req, body) -> {
+            MockClientHttpResponse response = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+            response.getHeaders().set("X-RateLimit-Remaining", remaining);
+            response.getHeaders().set("X-RateLimit-Reset", Long.toString(reset));
+            if (resource != null) response.getHeaders().set("X-RateLimit-Resource", resource);
+            return response;
+        });
+    }
+}
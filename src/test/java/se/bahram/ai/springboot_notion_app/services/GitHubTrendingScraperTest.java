@@ -0,0 +1,46 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+import se.bahram.ai.springboot_notion_app.domain.GitHubRepo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class GitHubTrendingScraperTest {
+
+    private static final String BASE = "https://github.com/trending";
+
+    @Test
+    void streamingAndDocumentModesAgree() throws IOException {
+        String html = fixture();
+
+        List<GitHubRepo> dom = GitHubTrendingScraper.parseDocument(Jsoup.parse(html, BASE));
+        List<GitHubRepo> streamed = GitHubTrendingScraper.parseStreaming(new StringReader(html), BASE);
+
+        assertThat(streamed).isEqualTo(dom);
+        assertThat(streamed).extracting(GitHubRepo::owner, GitHubRepo::repo, GitHubRepo::language, GitHubRepo::starsToday)
+                .containsExactly(
+                        tuple("acme", "rocket", "Rust", 1024),
+                        tuple("octo", "notes-app", "TypeScript", 87),
+                        tuple("data-lab", "pipeline", "Python", 5));
+    }
+
+    @Test
+    void parseDigitsIgnoresSeparatorsAndText() {
+        assertThat(GitHubTrendingScraper.parseDigits("1,234 stars today")).isEqualTo(1234);
+        assertThat(GitHubTrendingScraper.parseDigits("stars today")).isEqualTo(-1);
+    }
+
+    private static String fixture() throws IOException {
+        try (InputStream in = GitHubTrendingScraperTest.class.getResourceAsStream("/fixtures/trending.html")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
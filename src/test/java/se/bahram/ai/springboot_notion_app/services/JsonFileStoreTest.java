@@ -0,0 +1,59 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonFileStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void prunesLeastRecentlyUsedFilesBeyondTheCap() throws Exception {
+        JsonFileStore store = new JsonFileStore(new ObjectMapper(), dir, 10);
+        long hourAgo = System.currentTimeMillis() - 3_600_000;
+        for (int i = 0; i < 10; i++) {
+            store.write("key-" + i, "value-" + i);
+            // distinct, old mtimes in write order so the LRU order does not depend on timing
+            Files.setLastModifiedTime(file("key-" + i), FileTime.fromMillis(hourAgo + i * 1000L));
+        }
+        // key-0 is the oldest write, but reading it makes key-1 and key-2 the oldest
+        assertThat(store.read("key-0", String.class)).isEqualTo("value-0");
+
+        store.write("key-10", "value-10");
+
+        assertThat(fileCount()).isEqualTo(9);
+        assertThat(Files.exists(file("key-1"))).isFalse();
+        assertThat(Files.exists(file("key-2"))).isFalse();
+        assertThat(store.read("key-0", String.class)).isEqualTo("value-0");
+        assertThat(store.read("key-10", String.class)).isEqualTo("value-10");
+    }
+
+    @Test
+    void unreadableFilesAreMisses() throws Exception {
+        JsonFileStore store = new JsonFileStore(new ObjectMapper(), dir, 10);
+        store.write("key", "value");
+        Files.writeString(file("key"), "{not json");
+
+        assertThat(store.read("key", String.class)).isNull();
+        assertThat(store.read("absent", String.class)).isNull();
+    }
+
+    private Path file(String key) {
+        return dir.resolve(Hashes.sha256Hex(key) + ".json");
+    }
+
+    private long fileCount() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
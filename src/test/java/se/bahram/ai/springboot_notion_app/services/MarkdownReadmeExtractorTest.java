@@ -0,0 +1,96 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.junit.jupiter.api.Test;
+import se.bahram.ai.springboot_notion_app.domain.ReadmeFacts;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarkdownReadmeExtractorTest {
+
+    private final MarkdownReadmeExtractor extractor = new MarkdownReadmeExtractor();
+
+    @Test
+    void wellStructuredReadmeIsFilledConfidently() {
+        String readme = """
+                # rocket [![build](https://ci/badge.svg)](https://ci)
+
+                Rocket is a **blazing fast** build tool for [monorepos](https://monorepo.tools).
+
+                ## Features
+                - Remote caching
+                - Parallel task graph
+                  - nested detail that is not a feature
+
+                ## Installation
+
+                ```bash
+                $ npm install -g rocket-cli
+                # or
+                brew install rocket
+                ```
+
+                ## Known limitations
+                * Windows support is experimental
+                """;
+
+        MarkdownReadmeExtractor.Extraction result = extractor.extract(readme);
+        ReadmeFacts facts = result.facts();
+
+        assertThat(facts.oneLiner()).isEqualTo("Rocket is a blazing fast build tool for monorepos.");
+        assertThat(facts.keyFeatures()).containsExactly("Remote caching", "Parallel task graph");
+        assertThat(facts.installMethods()).containsExactly("npm install -g rocket-cli", "brew install rocket");
+        assertThat(facts.limitations()).containsExactly("Windows support is experimental");
+        assertThat(facts.targetAudience()).isNull();
+
+        assertThat(result.confidence(MarkdownReadmeExtractor.ONE_LINER)).isGreaterThanOrEqualTo(0.8);
+        assertThat(result.confidence(MarkdownReadmeExtractor.KEY_FEATURES)).isGreaterThanOrEqualTo(0.8);
+        assertThat(result.confidence(MarkdownReadmeExtractor.INSTALL_METHODS)).isGreaterThanOrEqualTo(0.8);
+        assertThat(result.confidence(MarkdownReadmeExtractor.TARGET_AUDIENCE)).isZero();
+    }
+
+    @Test
+    void badgeRowsAndUnrelatedListsAreNotFacts() {
+        String readme = """
+                <p align="center"><img src="logo.png"></p>
+
+                [![npm](https://img/npm.svg)](https://npm) [![ci](https://img/ci.svg)](https://ci)
+
+                ## Contributors
+                - alice
+                - bob
+
+                ```js
+                import { rocket } from "rocket";
+                ```
+                """;
+
+        MarkdownReadmeExtractor.Extraction result = extractor.extract(readme);
+
+        assertThat(result.facts().oneLiner()).isNull();
+        assertThat(result.facts().keyFeatures()).isNull();
+        assertThat(result.facts().installMethods()).isNull();
+        assertThat(result.confidence()).isEmpty();
+    }
+
+    @Test
+    void overlayKeepsConfidentLocalFieldsAndTakesTheRestFromTheModel() {
+        MarkdownReadmeExtractor.Extraction local = extractor.extract("""
+                # tool
+
+                A small tool that does one thing well.
+
+                ## Features
+                - one
+                """);
+        ReadmeFacts model = new ReadmeFacts("model one-liner", List.of("a", "b"), null, null, null, "devs");
+
+        ReadmeFacts merged = ReadmeFactsService.overlay(local, model, 0.8);
+
+        assertThat(merged.oneLiner()).isEqualTo("A small tool that does one thing well.");
+        // a single bullet is not confident enough
+        assertThat(merged.keyFeatures()).containsExactly("a", "b");
+        assertThat(merged.targetAudience()).isEqualTo("devs");
+    }
+}
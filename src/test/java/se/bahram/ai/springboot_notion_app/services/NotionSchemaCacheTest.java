@@ -0,0 +1,133 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import se.bahram.ai.springboot_notion_app.domain.NotionSchema;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotionSchemaCacheTest {
+
+    /** Clock the test can move forward. */
+    private static final class MutableClock extends Clock {
+        Instant now = Instant.parse("2026-10-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static final Map<String, Object> DB = Map.of(
+            "id", "db-1",
+            "title", List.of(Map.of("plain_text", "Books")),
+            "properties", Map.of(
+                    "Name", Map.of("id", "title", "type", "title", "title", Map.of()),
+                    "Price", Map.of("id", "p1", "type", "number", "number", Map.of("format", "number")),
+                    "Tags", Map.of("id", "t1", "type", "multi_select",
+                            "multi_select", Map.of("options", List.of(Map.of("name", "Java"), Map.of("name", "Spring"))))
+            )
+    );
+
+    @Test
+    void parsesPropertiesAndOptions() {
+        NotionSchema schema = NotionSchemaCache.parse(DB);
+
+        assertThat(schema.title()).isEqualTo("Books");
+        assertThat(schema.property("Tags")).hasValueSatisfying(p -> {
+            assertThat(p.type()).isEqualTo("multi_select");
+            assertThat(p.options()).containsExactly("Java", "Spring");
+        });
+    }
+
+    @Test
+    void validateReportsUnknownPropertiesAndTypeMismatches() {
+        NotionSchema schema = NotionSchemaCache.parse(DB);
+
+        List<String> problems = schema.validate(Map.of(
+                "Titel", Map.of("title", List.of()),
+                "Price", Map.of("rich_text", List.of())));
+
+        assertThat(problems).hasSize(2);
+        assertThat(schema.unknownOptions(Map.of(
+                "Tags", Map.of("multi_select", List.of(Map.of("name", "Java"), Map.of("name", "Kotlin"))))))
+                .containsExactly("Tags: Kotlin");
+    }
+
+    @Test
+    void servesTheCachedSchemaWithinTtlAndReloadsAfterIt() {
+        MutableClock clock = new MutableClock();
+        NotionPageWriter writer = mock(NotionPageWriter.class);
+        when(writer.submit(eq(HttpMethod.GET), eq("/databases/db-1"), any()))
+                .thenReturn(CompletableFuture.completedFuture(DB));
+        NotionSchemaCache cache = cache(writer, clock);
+
+        cache.getSchema("db-1");
+        clock.now = clock.now.plus(Duration.ofMinutes(5));
+        cache.getSchema("db-1");
+        verify(writer, times(1)).submit(any(), any(), any());
+
+        CompletableFuture<Map<String, Object>> reload = new CompletableFuture<>();
+        when(writer.submit(eq(HttpMethod.GET), eq("/databases/db-1"), any())).thenReturn(reload);
+        clock.now = clock.now.plus(Duration.ofMinutes(6));
+
+        // expired: the caller has to wait for the reload
+        CompletableFuture<NotionSchema> expired = cache.getSchemaAsync("db-1");
+        assertThat(expired).isNotDone();
+        reload.complete(DB);
+        assertThat(expired.join().title()).isEqualTo("Books");
+    }
+
+    @Test
+    void refreshAheadReloadsInTheBackgroundWhileServingTheCachedSchema() {
+        MutableClock clock = new MutableClock();
+        NotionPageWriter writer = mock(NotionPageWriter.class);
+        when(writer.submit(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(DB));
+        NotionSchemaCache cache = cache(writer, clock);
+        cache.getSchema("db-1");
+
+        CompletableFuture<Map<String, Object>> reload = new CompletableFuture<>();
+        when(writer.submit(any(), any(), any())).thenReturn(reload);
+        clock.now = clock.now.plus(Duration.ofMinutes(9));
+
+        CompletableFuture<NotionSchema> served = cache.getSchemaAsync("db-1");
+        cache.getSchemaAsync("db-1");   // one refresh at a time
+
+        assertThat(served).isCompleted();
+        assertThat(served.join().title()).isEqualTo("Books");
+        verify(writer, times(2)).submit(any(), any(), any());
+
+        reload.complete(Map.of("id", "db-1", "title", List.of(Map.of("plain_text", "Books v2")), "properties", Map.of()));
+        assertThat(cache.getSchema("db-1").title()).isEqualTo("Books v2");
+    }
+
+    private static NotionSchemaCache cache(NotionPageWriter writer, Clock clock) {
+        return new NotionSchemaCache(writer, new SimpleMeterRegistry(), Duration.ofMinutes(10), 0.8, clock);
+    }
+}
@@ -0,0 +1,108 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotionUpsertServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final NotionPageWriter writer = mock(NotionPageWriter.class);
+
+    @Test
+    void concurrentUpsertsForOneKeyCreateASinglePage() {
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        when(writer.createPage(any())).thenReturn(created);
+        NotionUpsertService upserts = service();
+
+        CompletableFuture<NotionUpsertService.Result> first = upserts.upsert("book:1", request(Map.of("Name", title("A"))));
+        CompletableFuture<NotionUpsertService.Result> second = upserts.upsert("book:1", request(Map.of("Name", title("A"))));
+        created.complete(Map.of("id", "page-1"));
+
+        assertThat(first.join().action()).isEqualTo(NotionUpsertService.Action.CREATED);
+        assertThat(second.join().action()).isEqualTo(NotionUpsertService.Action.UNCHANGED);
+        assertThat(second.join().pageId()).isEqualTo("page-1");
+        verify(writer, times(1)).createPage(any());
+    }
+
+    @Test
+    void mapOrderDoesNotCountAsAChange() {
+        when(writer.createPage(any())).thenReturn(CompletableFuture.completedFuture(Map.of("id", "page-1")));
+        NotionUpsertService upserts = service();
+        Map<String, Object> ab = new LinkedHashMap<>();
+        ab.put("number", 1);
+        ab.put("type", "number");
+        Map<String, Object> ba = new LinkedHashMap<>();
+        ba.put("type", "number");
+        ba.put("number", 1);
+
+        upserts.upsert("book:1", request(Map.of("Price", ab))).join();
+        NotionUpsertService.Result again = upserts.upsert("book:1", request(Map.of("Price", ba))).join();
+
+        assertThat(again.action()).isEqualTo(NotionUpsertService.Action.UNCHANGED);
+        verify(writer, never()).updatePage(any(), anyMap());
+    }
+
+    @Test
+    void propertiesDroppedFromTheRequestAreCleared() {
+        when(writer.createPage(any())).thenReturn(CompletableFuture.completedFuture(Map.of("id", "page-1")));
+        when(writer.updatePage(eq("page-1"), anyMap())).thenReturn(CompletableFuture.completedFuture(Map.of()));
+        NotionUpsertService upserts = service();
+
+        upserts.upsert("book:1", request(Map.of("Name", title("A"), "Tags", Map.of("multi_select", List.of(Map.of("name", "x")))))).join();
+        NotionUpsertService.Result result = upserts.upsert("book:1", request(Map.of("Name", title("A")))).join();
+
+        assertThat(result.action()).isEqualTo(NotionUpsertService.Action.UPDATED);
+        assertThat(result.changedProperties()).containsExactly("Tags");
+        verify(writer).updatePage("page-1", Map.of("properties", Map.of("Tags", Map.of("multi_select", List.of()))));
+
+        // and the index forgot it: a third identical call changes nothing
+        assertThat(upserts.upsert("book:1", request(Map.of("Name", title("A")))).join().action())
+                .isEqualTo(NotionUpsertService.Action.UNCHANGED);
+    }
+
+    @Test
+    void createdPagesAreOnDiskBeforeTheUpsertCompletes() {
+        when(writer.createPage(any())).thenReturn(CompletableFuture.completedFuture(Map.of("id", "page-1")));
+        service().upsert("book:1", request(Map.of("Name", title("A")))).join();
+
+        // a fresh index, as after a crash with no flush on shutdown
+        NotionPageIndex reloaded = new NotionPageIndex(new ObjectMapper(), dir.resolve("index.json").toString());
+        assertThat(reloaded.get("book:1")).map(NotionPageIndex.Entry::pageId).contains("page-1");
+    }
+
+    private NotionUpsertService service() {
+        ObjectMapper om = new ObjectMapper();
+        return new NotionUpsertService(writer, new NotionPageIndex(om, dir.resolve("index.json").toString()), om);
+    }
+
+    private static Map<String, Object> request(Map<String, Object> properties) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("parent", Map.of("database_id", "db"));
+        request.put("properties", properties);
+        return request;
+    }
+
+    private static Map<String, Object> title(String text) {
+        return Map.of("title", List.of(Map.of("text", Map.of("content", text))));
+    }
+}
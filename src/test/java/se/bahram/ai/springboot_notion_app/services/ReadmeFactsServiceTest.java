@@ -0,0 +1,80 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import se.bahram.ai.springboot_notion_app.domain.ReadmeFacts;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ReadmeFactsServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final ChatClient chat = mock(ChatClient.class);
+
+    @Test
+    void completeReadmeIsExtractedWithoutTheModel() {
+        String readme = """
+                # rocket
+
+                Rocket is a blazing fast build tool for monorepos.
+
+                ## Features
+                - Remote caching
+                - Parallel task graph
+
+                ## Use cases
+                - CI pipelines for large monorepos
+                - Local incremental builds
+
+                ## Installation
+
+                ```bash
+                npm install -g rocket-cli
+                ```
+
+                ## Known limitations
+                - Windows support is experimental
+                - No plugin API yet
+                """;
+
+        ReadmeFacts facts = service().extract("octo", "rocket", readme);
+
+        assertThat(facts.oneLiner()).isEqualTo("Rocket is a blazing fast build tool for monorepos.");
+        assertThat(facts.primaryUseCases()).hasSize(2);
+        assertThat(facts.targetAudience()).isNull();
+        verifyNoInteractions(chat);
+    }
+
+    private ReadmeFactsService service() {
+        ObjectMapper om = new ObjectMapper();
+        return new ReadmeFactsService(
+                new RestTemplateBuilder(),
+                chat,
+                om,
+                mock(ConditionalRequestCacheInterceptor.class),
+                new GitHubRateLimiter(10, 20, 200, 0),
+                new GzipDecompressingInterceptor(),
+                new SimpleClientHttpRequestFactory(),
+                new ReadmeFactsCache(om, dir.toString(), 100, 100),
+                new ReadmePreprocessor(3000, 3),
+                new MarkdownReadmeExtractor(),
+                new SimpleMeterRegistry(),
+                "",
+                "test-model",
+                false, 3000, 12000, 1500, false, 1,
+                true, 0.8,
+                List.of("oneLiner", "keyFeatures", "primaryUseCases", "installMethods", "limitations"));
+    }
+}
@@ -0,0 +1,73 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+import se.bahram.ai.springboot_notion_app.domain.ReadmeFacts;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadmeFactsStreamParserTest {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    @Test
+    void appliesFieldsAsTheyCompleteAcrossChunkBoundaries() throws Exception {
+        ReadmeFactsStreamParser parser = new ReadmeFactsStreamParser(factory);
+
+        assertThat(parser.feed("{\"oneLi")).isFalse();
+        assertThat(parser.feed("ner\": \"Fast build to")).isFalse();
+        assertThat(parser.fieldsCompleted()).isZero();
+
+        parser.feed("ol\", \"keyFeatures\": [\"caching\", \"remo");
+        assertThat(parser.fieldsCompleted()).isEqualTo(1);
+        assertThat(parser.result().oneLiner()).isEqualTo("Fast build tool");
+        assertThat(parser.result().keyFeatures()).isNull();
+
+        parser.feed("te exec\"], \"targetAudience\": null, \"installMethods\": [\"brew\"]}");
+        ReadmeFacts facts = parser.finish();
+
+        assertThat(facts.keyFeatures()).containsExactly("caching", "remote exec");
+        assertThat(facts.installMethods()).containsExactly("brew");
+        assertThat(facts.targetAudience()).isNull();
+        assertThat(facts.limitations()).isNull();
+    }
+
+    @Test
+    void skipsUnknownFieldsAndIgnoresTrailingOutput() throws Exception {
+        ReadmeFactsStreamParser parser = new ReadmeFactsStreamParser(factory);
+
+        boolean done = parser.feed("{\"meta\": {\"nested\": [1, {\"x\": 2}]}, \"score\": 3, \"oneLiner\": \"ok\"}");
+
+        assertThat(done).isTrue();
+        assertThat(parser.feed(" trailing chatter")).isTrue();
+        assertThat(parser.finish().oneLiner()).isEqualTo("ok");
+    }
+
+    @Test
+    void failsOnTheFirstChunkThatIsNotJson() throws Exception {
+        ReadmeFactsStreamParser parser = new ReadmeFactsStreamParser(factory);
+
+        assertThatThrownBy(() -> parser.feed("Sure! Here is the JSON"))
+                .isInstanceOf(JsonParseException.class);
+    }
+
+    @Test
+    void failsAsSoonAsAFieldHasTheWrongShape() throws Exception {
+        ReadmeFactsStreamParser parser = new ReadmeFactsStreamParser(factory);
+        parser.feed("{\"oneLiner\": \"x\", ");
+
+        assertThatThrownBy(() -> parser.feed("\"keyFeatures\": \"not a list\""))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("keyFeatures");
+    }
+
+    @Test
+    void truncatedAnswerFailsOnFinish() throws Exception {
+        ReadmeFactsStreamParser parser = new ReadmeFactsStreamParser(factory);
+        parser.feed("{\"oneLiner\": \"x\", \"limitations\": [\"a\"");
+
+        assertThatThrownBy(parser::finish).isInstanceOf(JsonParseException.class);
+    }
+}
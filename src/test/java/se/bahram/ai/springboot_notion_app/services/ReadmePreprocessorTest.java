@@ -0,0 +1,67 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadmePreprocessorTest {
+
+    private static final String README = """
+            # my-tool [![build](https://ci/badge.svg)](https://ci) ![logo](logo.png)
+            <!-- hidden note -->
+            A tiny tool that does one thing well. <img src="x.png" width="10">
+
+            ## Features
+            - Fast
+            - Small
+
+            ## Installation
+            ```
+            npm install my-tool
+            ```
+
+            ## Changelog
+            - 1.0.0 first release
+            """;
+
+    @Test
+    void cleanStripsBadgesImagesAndComments() {
+        String cleaned = new ReadmePreprocessor(3000, 3).clean(README);
+
+        assertThat(cleaned)
+                .doesNotContain("badge.svg", "logo.png", "hidden note", "<img")
+                .contains("A tiny tool that does one thing well.", "npm install my-tool");
+    }
+
+    @Test
+    void cleanDropsCodeBlocksBeyondLimit() {
+        String readme = "```\none\n```\n```\ntwo\n```\n";
+
+        assertThat(new ReadmePreprocessor(3000, 1).clean(readme))
+                .contains("one")
+                .doesNotContain("two");
+    }
+
+    @Test
+    void fitKeepsRelevantSectionsWithinBudget() {
+        String filler = "x".repeat(400);
+        String readme = "Intro line.\n## Changelog\n" + filler + "\n## Usage\nrun it\n## Features\n- fast\n";
+
+        String fitted = new ReadmePreprocessor(40, 3).fit(readme);
+
+        assertThat(fitted).contains("Intro line.", "## Features", "## Usage").doesNotContain(filler);
+        assertThat(fitted.indexOf("## Usage")).isLessThan(fitted.indexOf("## Features"));
+    }
+
+    @Test
+    void chunksSplitOnSections() {
+        String readme = "Intro.\n## A\n" + "a".repeat(80) + "\n## B\n" + "b".repeat(80) + "\n";
+
+        List<String> chunks = new ReadmePreprocessor(3000, 3).chunks(readme, 25);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        assertThat(String.join("", chunks)).contains("Intro.", "## A", "## B");
+    }
+}
@@ -0,0 +1,77 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> flights = new SingleFlight<>("test", meters);
+
+    @Test
+    void concurrentCallersForTheSameKeyShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = IntStream.range(0, 8)
+                    .mapToObj(i -> pool.submit(() -> flights.execute("octo/cat", () -> {
+                        calls.incrementAndGet();
+                        await(release);
+                        return "facts";
+                    })))
+                    .toList();
+
+            // wait until the leader is in flight and everyone else has joined it
+            while (meters.get("singleflight.coalesced").functionCounter().count() < 7) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> f : results) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).isEqualTo("facts");
+            }
+        }
+
+        assertThat(calls).hasValue(1);
+        assertThat(meters.get("singleflight.inflight").gauge().value()).isZero();
+        // nothing is cached once the call has completed
+        assertThat(flights.execute("octo/cat", () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void failuresAreSharedAndNotRemembered() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> leader = flights.executeAsync("octo/cat", () -> upstream);
+        CompletableFuture<String> follower = flights.executeAsync("octo/cat", () -> CompletableFuture.completedFuture("dup"));
+
+        // cancelling one caller's copy leaves the shared call alone
+        follower.cancel(true);
+        upstream.completeExceptionally(new IllegalStateException("rate limited"));
+
+        assertThatThrownBy(leader::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(flights.executeAsync("octo/cat", () -> CompletableFuture.completedFuture("retry")).join())
+                .isEqualTo("retry");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package se.bahram.ai.springboot_notion_app.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StarSnapshotStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-01T06:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void deltasComeFromEarlierSnapshotsAndSurviveRestart() throws Exception {
+        Path log = dir.resolve("stars.log");
+
+        new StarSnapshotStore(log, clockDaysAgo(40)).recordAndDiff("o", "r", 100);
+        new StarSnapshotStore(log, clockDaysAgo(31)).recordAndDiff("o", "r", 150);
+        new StarSnapshotStore(log, clockDaysAgo(8)).recordAndDiff("o", "r", 400);
+
+        StarSnapshotStore.Deltas deltas = new StarSnapshotStore(log, clockDaysAgo(0)).recordAndDiff("o", "r", 500);
+
+        assertThat(deltas.days7()).isEqualTo(100);
+        assertThat(deltas.days30()).isEqualTo(350);
+        assertThat(deltas.days90()).isNull();
+        assertThat(Files.readAllLines(log)).hasSize(4);
+    }
+
+    @Test
+    void snapshotsFarFromThePeriodStartAreNotUsed() throws Exception {
+        Path log = dir.resolve("stars.log");
+
+        new StarSnapshotStore(log, clockDaysAgo(40)).recordAndDiff("o", "r", 100);
+        new StarSnapshotStore(log, clockDaysAgo(10)).recordAndDiff("o", "r", 400);
+
+        StarSnapshotStore.Deltas deltas = new StarSnapshotStore(log, clockDaysAgo(0)).recordAndDiff("o", "r", 500);
+
+        // a 40-day-old snapshot is not a 30-day delta, nor a 10-day-old one a 7-day delta
+        assertThat(deltas.days7()).isNull();
+        assertThat(deltas.days30()).isNull();
+        assertThat(deltas.days90()).isNull();
+    }
+
+    @Test
+    void sameDayWithSameTotalIsNotAppendedTwice() throws Exception {
+        Path log = dir.resolve("stars.log");
+        StarSnapshotStore store = new StarSnapshotStore(log, clockDaysAgo(0));
+
+        store.recordAndDiff("o", "r", 10);
+        store.recordAndDiff("o", "r", 10);
+
+        assertThat(Files.readAllLines(log)).hasSize(1);
+    }
+
+    private static Clock clockDaysAgo(int days) {
+        return Clock.fixed(NOW.minus(days, ChronoUnit.DAYS), ZoneOffset.UTC);
+    }
+}